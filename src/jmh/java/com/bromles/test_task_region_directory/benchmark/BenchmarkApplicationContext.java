@@ -0,0 +1,44 @@
+package com.bromles.test_task_region_directory.benchmark;
+
+import com.bromles.test_task_region_directory.TestTaskApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+
+/**
+ * Контекст приложения для бенчмарков
+ * <p>
+ * Запускает приложение без веб-сервера со встроенной H2 в памяти, заполненной из {@code data/initial_data.sql}.
+ * Каждый контекст получает собственную базу данных, поэтому бенчмарки не влияют друг на друга.
+ */
+public final class BenchmarkApplicationContext {
+
+    private BenchmarkApplicationContext() {
+    }
+
+    /**
+     * Запускает контекст приложения
+     *
+     * @param properties Тип: {@link String String[]}. Дополнительные свойства в формате {@code key=value}
+     * @return Возвращает запущенный контекст, который необходимо закрыть по окончании бенчмарка
+     */
+    public static ConfigurableApplicationContext start(String... properties) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        return new SpringApplicationBuilder(TestTaskApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() +
+                                ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.platform=h2",
+                        "spring.datasource.initialization-mode=always",
+                        "spring.datasource.data=file:data/initial_data.sql",
+                        "logging.level.root=warn")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.bromles.test_task_region_directory.benchmark;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сериализации ответов контроллера тем же {@link ObjectMapper}, что используется приложением
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegionJsonSerializationBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private ObjectMapper objectMapper;
+
+    private List<RegionDTO> allRegions;
+
+    private RegionDTO region;
+
+    private Map<String, Object> addedResponse;
+
+    @Setup
+    public void setUp() throws RecordNotFoundException {
+        context = BenchmarkApplicationContext.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+        allRegions = context.getBean(IRegionDirectoryService.class).getAll();
+        region = allRegions.get(0);
+
+        addedResponse = new LinkedHashMap<>();
+        addedResponse.put("successful", true);
+        addedResponse.put("value", region);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeAll() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(allRegions);
+    }
+
+    @Benchmark
+    public byte[] serializeOne() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(region);
+    }
+
+    @Benchmark
+    public byte[] serializeAddedResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(addedResponse);
+    }
+}
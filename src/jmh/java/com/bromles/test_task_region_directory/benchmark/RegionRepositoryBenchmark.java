@@ -0,0 +1,98 @@
+package com.bromles.test_task_region_directory.benchmark;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк запросов репозитория к встроенной H2 через MyBatis
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegionRepositoryBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private IRegionRepository regionRepository;
+
+    private Region lastOfFirstPage;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplicationContext.start();
+        regionRepository = context.getBean(IRegionRepository.class);
+
+        List<Region> firstPage = regionRepository.getPage(null, null, 20);
+        lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Region> getAll() {
+        return regionRepository.getAll();
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        regionRepository.streamAll(resultContext -> blackhole.consume(resultContext.getResultObject()));
+    }
+
+    @Benchmark
+    public Region getById() {
+        return regionRepository.getById("35");
+    }
+
+    @Benchmark
+    public List<String> getExistingIds() {
+        return regionRepository.getExistingIds(Arrays.asList("35", "77", "999"));
+    }
+
+    @Benchmark
+    public List<Region> getByName() {
+        return regionRepository.getByName("Республика Башкортостан");
+    }
+
+    @Benchmark
+    public List<Region> getByNameBeginning() {
+        return regionRepository.getByNameBeginning("Р");
+    }
+
+    @Benchmark
+    public List<Region> getByShortName() {
+        return regionRepository.getByShortName("БАШ");
+    }
+
+    @Benchmark
+    public List<Region> getFirstPage() {
+        return regionRepository.getPage(null, null, 21);
+    }
+
+    @Benchmark
+    public List<Region> getSecondPage() {
+        return regionRepository.getPage(lastOfFirstPage.getName(), lastOfFirstPage.getKey(), 21);
+    }
+
+    @Benchmark
+    public List<Region> getByNameBeginningPage() {
+        return regionRepository.getByNameBeginningPage("Р", null, null, 11);
+    }
+
+    @Benchmark
+    public List<Region> getByShortNamePage() {
+        return regionRepository.getByShortNamePage("БАШ", null, null, 11);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Содержит JMH-бенчмарки репозитория и сериализации ответов, а также общий контекст приложения для бенчмарков
+ */
+package com.bromles.test_task_region_directory.benchmark;
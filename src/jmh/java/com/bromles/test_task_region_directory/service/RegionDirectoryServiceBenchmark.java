@@ -0,0 +1,93 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.benchmark.BenchmarkApplicationContext;
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.bromles.test_task_region_directory.repository.RegionBatchWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк конвертации регионов и получения региона по идентификатору
+ * <p>
+ * Сравнивает получение региона через кэширующий прокси сервиса, без кэша напрямую из репозитория и из снимка
+ * справочника в памяти. Находится в пакете сервиса, чтобы обращаться к его конструктору и методу конвертации.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegionDirectoryServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+
+    private IRegionDirectoryService cachedService;
+
+    private RegionDirectoryService uncachedService;
+
+    private RegionDirectoryService snapshotService;
+
+    private List<Region> regions;
+
+    private Region region;
+
+    @Setup
+    public void setUp() throws RecordNotFoundException {
+        context = BenchmarkApplicationContext.start("region-directory.snapshot.enabled=false");
+
+        IRegionRepository regionRepository = context.getBean(IRegionRepository.class);
+        RegionBatchWriter regionBatchWriter = context.getBean(RegionBatchWriter.class);
+        CacheManager noCaching = new ConcurrentMapCacheManager();
+        ApplicationEventPublisher noEvents = event -> { };
+
+        cachedService = context.getBean(IRegionDirectoryService.class);
+        uncachedService = new RegionDirectoryService(regionRepository, regionBatchWriter, noCaching, noEvents, false);
+        snapshotService = new RegionDirectoryService(regionRepository, regionBatchWriter, noCaching, noEvents, true);
+
+        regions = regionRepository.getAll();
+        region = regions.get(0);
+
+        cachedService.getById(region.getId());
+        snapshotService.getById(region.getId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RegionDTO toDTO() {
+        return region.toDTO();
+    }
+
+    @Benchmark
+    public List<RegionDTO> convertRegionsToDTOs() throws RecordNotFoundException {
+        return uncachedService.convertRegionsToDTOs(regions);
+    }
+
+    @Benchmark
+    public RegionDTO getByIdCached() throws RecordNotFoundException {
+        return cachedService.getById(region.getId());
+    }
+
+    @Benchmark
+    public RegionDTO getByIdUncached() throws RecordNotFoundException {
+        return uncachedService.getById(region.getId());
+    }
+
+    @Benchmark
+    public RegionDTO getByIdFromSnapshot() throws RecordNotFoundException {
+        return snapshotService.getById(region.getId());
+    }
+}
@@ -0,0 +1,80 @@
+package com.bromles.test_task_region_directory.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Статистика задержек запросов к одному эндпоинту
+ * <p>
+ * Хранит задержку каждого запроса, поэтому перцентили вычисляются точно, а не по гистограмме. Экземпляр
+ * принадлежит одному потоку нагрузки, статистики потоков объединяются по окончании теста.
+ */
+final class EndpointStatistics {
+
+    private long[] latencies = new long[1024];
+
+    private int count;
+
+    private long errors;
+
+    void record(long latencyNanos, boolean successful) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+
+        latencies[count++] = latencyNanos;
+
+        if (!successful) {
+            errors++;
+        }
+    }
+
+    void merge(EndpointStatistics other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Описывает статистику эндпоинта
+     *
+     * @param durationNanos Тип: long. Длительность измерения в наносекундах
+     * @return Возвращает пары, состоящие из названия показателя и его значения. Задержки указаны в миллисекундах
+     */
+    Map<String, Object> describe(long durationNanos) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> description = new LinkedHashMap<>();
+
+        description.put("requests", count);
+        description.put("errors", errors);
+        description.put("throughput-rps", count * 1_000_000_000.0 / durationNanos);
+        description.put("p50-ms", percentile(sorted, 0.5));
+        description.put("p95-ms", percentile(sorted, 0.95));
+        description.put("p99-ms", percentile(sorted, 0.99));
+        description.put("p99.9-ms", percentile(sorted, 0.999));
+        description.put("max-ms", count == 0 ? 0.0 : sorted[count - 1] / 1_000_000.0);
+
+        return description;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
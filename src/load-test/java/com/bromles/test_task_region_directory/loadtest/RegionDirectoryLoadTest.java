@@ -0,0 +1,338 @@
+package com.bromles.test_task_region_directory.loadtest;
+
+import com.bromles.test_task_region_directory.TestTaskApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Нагрузочный тест HTTP API справочника регионов
+ * <p>
+ * Запускает приложение на случайном порту со встроенной H2 в памяти, заполненной из {@code data/initial_data.sql},
+ * и нагружает все эндпоинты контроллера из нескольких потоков. Каждый поток выполняет запрос на чтение или, с
+ * заданной вероятностью, цепочку запросов на запись: добавление, обновление и удаление региона, пакетное добавление
+ * или импорт. Для записи каждый поток использует собственные свободные идентификаторы, поэтому записи потоков не
+ * конфликтуют.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * <ul>
+ *     <li>{@code loadtest.duration} - длительность измерения в секундах</li>
+ *     <li>{@code loadtest.warmup} - длительность прогрева в секундах</li>
+ *     <li>{@code loadtest.concurrency} - количество потоков нагрузки, от 1 до 100, если доля записи не нулевая</li>
+ *     <li>{@code loadtest.write-ratio} - доля итераций с записью, от 0 до 1</li>
+ *     <li>{@code loadtest.report} - путь к JSON-отчету</li>
+ * </ul>
+ * Отчет содержит количество запросов, ошибок, пропускную способность и перцентили задержки p50, p95, p99 и p99.9
+ * по каждому эндпоинту. Аргументы командной строки передаются приложению, например
+ * {@code --spring.profiles.active=virtual-threads}.
+ */
+public final class RegionDirectoryLoadTest {
+
+    /**
+     * Свободные идентификаторы, не занятые в начальных данных справочника
+     */
+    private static final int FIRST_FREE_ID = 800;
+
+    private static final int FREE_IDS = 200;
+
+    private static final String[] NAMES = {"Республика Башкортостан", "город Москва", "Вологодская область"};
+
+    private static final String[] NAME_BEGINNINGS = {"Р", "Вол", "Мос"};
+
+    private static final String[] SHORT_NAMES = {"БАШ", "МСК", "ВОЛ"};
+
+    private static final String[] IDS = {"02", "35", "77", "102", "750"};
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final String baseUri;
+
+    private final long measureFrom;
+
+    private final long measureUntil;
+
+    private final double writeRatio;
+
+    private RegionDirectoryLoadTest(int port, long measureFrom, long measureUntil, double writeRatio) {
+        this.baseUri = "http://localhost:" + port + "/v1/regions";
+        this.measureFrom = measureFrom;
+        this.measureUntil = measureUntil;
+        this.writeRatio = writeRatio;
+    }
+
+    /**
+     * Точка запуска нагрузочного теста
+     *
+     * @param args Тип: {@link String String[]}. Аргументы командной строки приложения, параметры теста задаются
+     *             системными свойствами
+     * @throws Exception Исключение, генерируемое при ошибке запуска приложения или записи отчета
+     */
+    public static void main(String[] args) throws Exception {
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", 5);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        double writeRatio = Double.parseDouble(System.getProperty("loadtest.write-ratio", "0.1"));
+        Path report = Paths.get(System.getProperty("loadtest.report", "target/load-test-report.json"));
+
+        if (concurrency < 1 || (writeRatio > 0 && concurrency > FREE_IDS / 2)) {
+            throw new IllegalArgumentException("loadtest.concurrency must be between 1 and " + FREE_IDS / 2 +
+                    " when loadtest.write-ratio is positive");
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestTaskApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:load-test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.platform=h2",
+                        "spring.datasource.initialization-mode=always",
+                        "spring.datasource.data=file:data/initial_data.sql",
+                        "logging.level.root=warn")
+                .run(args)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+            RegionDirectoryLoadTest loadTest = new RegionDirectoryLoadTest(port, measureFrom, measureUntil, writeRatio);
+            Map<String, EndpointStatistics> statistics = loadTest.run(concurrency);
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("duration-s", durationSeconds);
+            settings.put("warmup-s", warmupSeconds);
+            settings.put("concurrency", concurrency);
+            settings.put("write-ratio", writeRatio);
+            settings.put("arguments", Arrays.asList(args));
+
+            Map<String, Object> endpoints = new TreeMap<>();
+            long total = 0;
+
+            for (Map.Entry<String, EndpointStatistics> entry : statistics.entrySet()) {
+                endpoints.put(entry.getKey(), entry.getValue().describe(measureUntil - measureFrom));
+                total += entry.getValue().getCount();
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("settings", settings);
+            result.put("throughput-rps", total / (double) durationSeconds);
+            result.put("endpoints", endpoints);
+
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), result);
+
+            print(endpoints);
+            System.out.println("Report written to " + report.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Запускает потоки нагрузки и ожидает окончания измерения
+     *
+     * @param concurrency Тип: int. Количество потоков нагрузки
+     * @return Возвращает объединенную статистику всех потоков по названиям эндпоинтов
+     * @throws InterruptedException Исключение, генерируемое при прерывании ожидания
+     * @throws ExecutionException   Исключение, генерируемое при ошибке в потоке нагрузки
+     */
+    private Map<String, EndpointStatistics> run(int concurrency) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, EndpointStatistics>>> workers = new ArrayList<>(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            List<String> ownIds = new ArrayList<>();
+
+            for (int id = FIRST_FREE_ID + i; id < FIRST_FREE_ID + FREE_IDS; id += concurrency) {
+                ownIds.add(String.valueOf(id));
+            }
+
+            workers.add(executor.submit(() -> work(ownIds)));
+        }
+
+        Map<String, EndpointStatistics> merged = new HashMap<>();
+
+        for (Future<Map<String, EndpointStatistics>> worker : workers) {
+            for (Map.Entry<String, EndpointStatistics> entry : worker.get().entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), x -> new EndpointStatistics()).merge(entry.getValue());
+            }
+        }
+
+        executor.shutdown();
+
+        return merged;
+    }
+
+    /**
+     * Выполняет запросы одного потока нагрузки до окончания измерения
+     *
+     * @param ownIds Тип: {@link List List&lt;String&gt;}. Свободные идентификаторы, принадлежащие потоку
+     * @return Возвращает статистику потока по названиям эндпоинтов
+     * @throws IOException          Исключение, генерируемое при ошибке соединения
+     * @throws InterruptedException Исключение, генерируемое при прерывании потока
+     */
+    private Map<String, EndpointStatistics> work(List<String> ownIds) throws IOException, InterruptedException {
+        Map<String, EndpointStatistics> statistics = new HashMap<>();
+        Random random = new Random();
+        int nextId = 0;
+
+        while (System.nanoTime() < measureUntil) {
+            if (random.nextDouble() >= writeRatio) {
+                read(random, statistics);
+                continue;
+            }
+
+            String id = ownIds.get(nextId++ % ownIds.size());
+            String secondId = ownIds.get(nextId++ % ownIds.size());
+
+            switch (random.nextInt(3)) {
+                case 0: {
+                    send("POST /", post("", "application/json", regionJson(id, "Нагрузочный регион")), statistics);
+                    send("PUT /{id}", put(id, regionJson(id, "Обновленный регион")), statistics);
+                    send("DELETE /{id}", delete(id), statistics);
+                    break;
+                }
+                case 1: {
+                    String batch = "[" + regionJson(id, "Пакетный регион") + "," +
+                            regionJson(secondId, "Пакетный регион") + "]";
+
+                    send("POST /batch", post("/batch", "application/json", batch), statistics);
+                    send("DELETE /{id}", delete(id), statistics);
+                    send("DELETE /{id}", delete(secondId), statistics);
+                    break;
+                }
+                default: {
+                    send("POST /import", post("/import", "text/csv", id + ",Импортированный регион,НГР\n"),
+                            statistics);
+                    send("DELETE /{id}", delete(id), statistics);
+                }
+            }
+        }
+
+        return statistics;
+    }
+
+    private void read(Random random, Map<String, EndpointStatistics> statistics)
+            throws IOException, InterruptedException {
+        switch (random.nextInt(7)) {
+            case 0: {
+                send("GET /", get(""), statistics);
+                break;
+            }
+            case 1: {
+                send("GET /?limit", get("?limit=20"), statistics);
+                break;
+            }
+            case 2: {
+                send("GET /{id}", get("/" + pick(random, IDS)), statistics);
+                break;
+            }
+            case 3: {
+                send("GET /?name", get("?name=" + encode(pick(random, NAMES))), statistics);
+                break;
+            }
+            case 4: {
+                send("GET /?name-beginning", get("?name-beginning=" + encode(pick(random, NAME_BEGINNINGS))),
+                        statistics);
+                break;
+            }
+            case 5: {
+                send("GET /?short-name", get("?short-name=" + encode(pick(random, SHORT_NAMES))), statistics);
+                break;
+            }
+            default: {
+                send("GET /{id} (invalid)", get("/0"), statistics);
+            }
+        }
+    }
+
+    /**
+     * Отправляет запрос и записывает его задержку, если он завершился в период измерения
+     *
+     * @param endpoint   Тип: {@link String}. Название эндпоинта в отчете
+     * @param request    Тип: {@link HttpRequest}. Отправляемый запрос
+     * @param statistics Тип: {@link Map Map&lt;String, EndpointStatistics&gt;}. Статистика потока
+     * @throws IOException          Исключение, генерируемое при ошибке соединения
+     * @throws InterruptedException Исключение, генерируемое при прерывании потока
+     */
+    private void send(String endpoint, HttpRequest request, Map<String, EndpointStatistics> statistics)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        long finished = System.nanoTime();
+
+        if (finished >= measureFrom && finished < measureUntil) {
+            boolean expectedStatus = endpoint.endsWith("(invalid)") ? response.statusCode() == 400
+                    : response.statusCode() < 400;
+
+            statistics.computeIfAbsent(endpoint, x -> new EndpointStatistics())
+                    .record(finished - started, expectedStatus);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String contentType, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUri + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest put(String id, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUri + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest delete(String id) {
+        return HttpRequest.newBuilder(URI.create(baseUri + "/" + id)).DELETE().build();
+    }
+
+    private static String regionJson(String id, String name) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"shortName\":\"НГР\"}";
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void print(Map<String, Object> endpoints) {
+        System.out.printf("%-22s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "rps", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms");
+
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> description = (Map<String, Object>) entry.getValue();
+
+            System.out.printf("%-22s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    description.get("requests"), description.get("errors"), description.get("throughput-rps"),
+                    description.get("p50-ms"), description.get("p95-ms"), description.get("p99-ms"),
+                    description.get("p99.9-ms"));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bromles.test_task_region_directory.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Сравнение обработки запросов в платформенных и виртуальных потоках
+ * <p>
+ * Дважды запускает {@link RegionDirectoryLoadTest} в отдельном процессе: с пулом потоков Tomcat по умолчанию и в
+ * профиле {@code virtual-threads}. В обоих запусках отключены снимок справочника и кэши, а размер пула соединений с
+ * базой данных одинаков, поэтому каждый запрос на чтение выполняет запрос JDBC и запуски отличаются только
+ * потоками, в которых обрабатываются запросы. Виртуальные потоки требуют Java 21, поэтому сравнение запускается той
+ * же виртуальной машиной, что и сборка профиля {@code virtual-threads}.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * <ul>
+ *     <li>{@code loadtest.duration}, {@code loadtest.warmup}, {@code loadtest.write-ratio} - передаются
+ *     нагрузочному тесту</li>
+ *     <li>{@code loadtest.concurrency} - количество потоков нагрузки, по умолчанию превышающее пул потоков
+ *     Tomcat</li>
+ *     <li>{@code loadtest.pool-size} - размер пула соединений с базой данных в обоих запусках</li>
+ *     <li>{@code loadtest.report} - путь к JSON-отчету сравнения</li>
+ * </ul>
+ * Отчеты запусков сохраняются в {@code target/load-test-<режим>.json}, вывод процессов - в
+ * {@code target/load-test-<режим>.log}.
+ */
+public final class ThreadModeComparison {
+
+    private static final List<String> UNCACHED_ARGUMENTS = List.of(
+            "--region-directory.snapshot.enabled=false",
+            "--region-directory.cache.default-spec=maximumSize=0",
+            "--region-directory.cache.specs[regionDTOsById]=maximumSize=0");
+
+    private ThreadModeComparison() {
+    }
+
+    /**
+     * Точка запуска сравнения
+     *
+     * @param args Тип: {@link String String[]}. Не используются, параметры задаются системными свойствами
+     * @throws Exception Исключение, генерируемое при ошибке запуска нагрузочного теста или записи отчета
+     */
+    public static void main(String[] args) throws Exception {
+        int poolSize = Integer.getInteger("loadtest.pool-size", 32);
+        Path report = Paths.get(System.getProperty("loadtest.report", "target/thread-mode-comparison.json"));
+
+        List<String> loadTestProperties = List.of(
+                "-Dloadtest.duration=" + Integer.getInteger("loadtest.duration", 30),
+                "-Dloadtest.warmup=" + Integer.getInteger("loadtest.warmup", 10),
+                "-Dloadtest.concurrency=" + Integer.getInteger("loadtest.concurrency", 400),
+                "-Dloadtest.write-ratio=" + System.getProperty("loadtest.write-ratio", "0"));
+
+        List<String> commonArguments = new ArrayList<>(UNCACHED_ARGUMENTS);
+        commonArguments.add("--spring.datasource.hikari.maximum-pool-size=" + poolSize);
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("platform", List.of());
+        modes.put("virtual", List.of("--spring.profiles.active=virtual-threads"));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            List<String> arguments = new ArrayList<>(commonArguments);
+            arguments.addAll(mode.getValue());
+
+            results.put(mode.getKey(), run(mode.getKey(), loadTestProperties, arguments));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pool-size", poolSize);
+        result.put("modes", results);
+        result.put("throughput-ratio", throughput(results.get("virtual")) / throughput(results.get("platform")));
+
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), result);
+
+        print(results);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    /**
+     * Запускает нагрузочный тест в отдельном процессе и читает его отчет
+     *
+     * @param mode               Тип: {@link String}. Название режима
+     * @param loadTestProperties Тип: {@link List List&lt;String&gt;}. Системные свойства нагрузочного теста
+     * @param arguments          Тип: {@link List List&lt;String&gt;}. Аргументы командной строки приложения
+     * @return Возвращает отчет нагрузочного теста
+     * @throws IOException          Исключение, генерируемое при ошибке запуска процесса или чтения отчета
+     * @throws InterruptedException Исключение, генерируемое при прерывании ожидания
+     */
+    private static Map<?, ?> run(String mode, List<String> loadTestProperties, List<String> arguments)
+            throws IOException, InterruptedException {
+        Path modeReport = Paths.get("target", "load-test-" + mode + ".json");
+        Path log = Paths.get("target", "load-test-" + mode + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(loadTestProperties);
+        command.add("-Dloadtest.report=" + modeReport);
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(RegionDirectoryLoadTest.class.getName());
+        command.addAll(arguments);
+
+        System.out.println("Running load test in " + mode + " threads mode");
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        int exitCode = process.waitFor();
+
+        if (exitCode != 0) {
+            throw new IllegalStateException("Load test in " + mode + " threads mode exited with code " + exitCode +
+                    ", see " + log.toAbsolutePath());
+        }
+
+        return new ObjectMapper().readValue(modeReport.toFile(), Map.class);
+    }
+
+    private static double throughput(Object modeResult) {
+        return ((Number) ((Map<?, ?>) modeResult).get("throughput-rps")).doubleValue();
+    }
+
+    private static void print(Map<String, Object> results) {
+        System.out.printf("%-22s %-9s %10s %8s %9s %9s %9s%n",
+                "endpoint", "threads", "rps", "errors", "p50 ms", "p99 ms", "p99.9 ms");
+
+        Set<Object> endpoints = new TreeSet<>();
+
+        for (Object modeResult : results.values()) {
+            endpoints.addAll(((Map<?, ?>) ((Map<?, ?>) modeResult).get("endpoints")).keySet());
+        }
+
+        for (Object endpoint : endpoints) {
+            for (Map.Entry<String, Object> mode : results.entrySet()) {
+                Map<?, ?> description = (Map<?, ?>) ((Map<?, ?>) ((Map<?, ?>) mode.getValue()).get("endpoints"))
+                        .get(endpoint);
+
+                if (description != null) {
+                    System.out.printf("%-22s %-9s %10.1f %8d %9.2f %9.2f %9.2f%n", endpoint, mode.getKey(),
+                            description.get("throughput-rps"), description.get("errors"), description.get("p50-ms"),
+                            description.get("p99-ms"), description.get("p99.9-ms"));
+                }
+            }
+        }
+
+        for (Map.Entry<String, Object> mode : results.entrySet()) {
+            System.out.printf("Total throughput in %s threads mode: %.1f rps%n", mode.getKey(),
+                    throughput(mode.getValue()));
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Содержит нагрузочный тест HTTP API справочника регионов и сравнение обработки запросов в платформенных и
+ * виртуальных потоках
+ */
+package com.bromles.test_task_region_directory.loadtest;
@@ -5,10 +5,14 @@ import io.swagger.v3.oas.annotations.info.Contact;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.cache.annotation.EnableCaching;
 
 /**
  * Главный класс сервера
+ * <p>
+ * Автоконфигурация R2DBC исключена: при ее наличии источник данных JDBC не создается, а фабрика соединений R2DBC
+ * реактивного режима создается в {@link com.bromles.test_task_region_directory.config.ReactiveConfiguration}.
  */
 @OpenAPIDefinition(
         info = @Info(
@@ -18,7 +22,7 @@ import org.springframework.cache.annotation.EnableCaching;
                 contact = @Contact(url = "https://github.com/Bromles", name = "Alexandr Ushakov")
         )
 )
-@SpringBootApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableCaching
 public class TestTaskApplication {
 
@@ -0,0 +1,128 @@
+package com.bromles.test_task_region_directory.config;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static com.bromles.test_task_region_directory.service.RegionDirectoryService.*;
+
+/**
+ * Конфигурация кэшей справочника регионов
+ * <p>
+ * Каждый кэш ограничен по размеру и времени жизни записей и ведет статистику обращений. Для кэшей со спецификацией,
+ * содержащей {@code refreshAfterWrite}, создается загружающий кэш, обновляющий записи из репозитория. Кэш
+ * отсутствующих идентификаторов не загружается из репозитория, а заполняется сервисом.
+ * <p>
+ * Caffeine поддерживает {@code refreshAfterWrite} только в загружающих кэшах, поэтому для кэшей без загрузчика, то
+ * есть кэша отсутствующих идентификаторов и кэшей, создаваемых по спецификации по умолчанию, этот параметр удаляется
+ * из спецификации.
+ */
+@Configuration
+@EnableConfigurationProperties(RegionCacheProperties.class)
+public class CacheConfiguration {
+
+    /**
+     * Создает менеджер кэшей на основе Caffeine
+     *
+     * @param properties       Тип: {@link RegionCacheProperties}. Настройки кэшей
+     * @param regionRepository Тип: {@link IRegionRepository}. Репозиторий, из которого обновляются записи кэшей
+     * @return Возвращает менеджер кэшей с зарегистрированными кэшами справочника
+     */
+    @Bean
+    public CacheManager cacheManager(RegionCacheProperties properties, IRegionRepository regionRepository) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(withoutRefresh(properties.getDefaultSpec()));
+
+        for (Map.Entry<String, CacheLoader<Object, Object>> entry : loaders(regionRepository).entrySet()) {
+            String cacheName = entry.getKey();
+            String spec = properties.getSpec(cacheName);
+            Caffeine<Object, Object> builder = Caffeine.from(spec);
+
+            if (spec.contains("refreshAfterWrite")) {
+                cacheManager.registerCustomCache(cacheName, builder.build(entry.getValue()));
+            }
+            else {
+                cacheManager.registerCustomCache(cacheName, builder.build());
+            }
+        }
+
+        cacheManager.registerCustomCache(MISSING_REGION_IDS_CACHE,
+                Caffeine.from(withoutRefresh(properties.getSpec(MISSING_REGION_IDS_CACHE))).build());
+
+        return cacheManager;
+    }
+
+    /**
+     * Удаляет из спецификации кэша параметр {@code refreshAfterWrite}, недопустимый для кэшей без загрузчика
+     *
+     * @param spec Тип: {@link String}. Спецификация кэша в формате Caffeine
+     * @return Возвращает спецификацию без параметра {@code refreshAfterWrite}
+     */
+    private static String withoutRefresh(String spec) {
+        StringJoiner options = new StringJoiner(",");
+
+        for (String option : spec.split(",")) {
+            if (!option.trim().startsWith("refreshAfterWrite")) {
+                options.add(option);
+            }
+        }
+
+        return options.toString();
+    }
+
+    /**
+     * Создает загрузчики записей для кэшей справочника
+     *
+     * @param regionRepository Тип: {@link IRegionRepository}. Репозиторий, из которого загружаются записи
+     * @return Возвращает пары, состоящие из названия кэша и загрузчика его записей
+     */
+    private static Map<String, CacheLoader<Object, Object>> loaders(IRegionRepository regionRepository) {
+        Map<String, CacheLoader<Object, Object>> loaders = new LinkedHashMap<>();
+
+        loaders.put(REGION_DTOS_BY_ID_CACHE, key -> {
+            Region region = regionRepository.getById((String) key);
+
+            return region != null ? region.toDTO() : null;
+        });
+        loaders.put(REGION_DTOS_BY_NAME_CACHE, key -> toDTOs(regionRepository.getByName((String) key)));
+        loaders.put(REGION_DTOS_BY_SHORT_NAME_CACHE, key -> toDTOs(regionRepository.getByShortName((String) key)));
+        loaders.put(REGION_DTOS_BY_NAME_BEGINNING_CACHE,
+                key -> toDTOs(regionRepository.getByNameBeginning((String) key)));
+
+        return loaders;
+    }
+
+    /**
+     * Конвертирует сущности в объекты трансфера данных
+     *
+     * @param regions Тип: {@link List List&lt;Region&gt;}. Список регионов для конвертации
+     * @return Возвращает список объектов трансфера данных или {@code null}, если список регионов пуст, чтобы запись
+     * была удалена из кэша
+     */
+    private static List<RegionDTO> toDTOs(List<Region> regions) {
+        if (regions.isEmpty()) {
+            return null;
+        }
+
+        List<RegionDTO> regionDTOs = new ArrayList<>(regions.size());
+
+        for (Region region : regions) {
+            regionDTOs.add(region.toDTO());
+        }
+
+        return regionDTOs;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bromles.test_task_region_directory.config;
+
+import com.bromles.test_task_region_directory.controller.RegionDirectoryController;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Конфигурация профиля быстрого запуска {@code fast-startup}
+ * <p>
+ * В профиле все бины создаются лениво, кроме контроллера справочника и его зависимостей, которые нужны для первого
+ * запроса. Обучающий запуск сборки, по которому строится архив классов AppCDS, завершает приложение сразу после
+ * готовности.
+ */
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfiguration {
+
+    /**
+     * Создает фильтр бинов, создаваемых при запуске несмотря на ленивую инициализацию
+     *
+     * @return Возвращает фильтр, исключающий из ленивой инициализации контроллер и сервис справочника
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(RegionDirectoryController.class,
+                IRegionDirectoryService.class);
+    }
+
+    /**
+     * Создает слушатель, завершающий приложение после готовности к обработке запросов
+     *
+     * @return Возвращает слушатель события готовности приложения
+     */
+    @Bean
+    @ConditionalOnProperty("region-directory.startup.exit-on-ready")
+    public ApplicationListener<ApplicationReadyEvent> exitOnReadyListener() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.bromles.test_task_region_directory.config;
+
+import com.bromles.test_task_region_directory.storage.RegionStorageProperties;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация реактивного веб-приложения
+ * <p>
+ * Включается при запуске с {@code spring.main.web-application-type=reactive}. Реактивный репозиторий подключается
+ * через драйвер R2DBC к той же базе данных H2, что и источник данных JDBC, поэтому схема по-прежнему создается
+ * скриптами инициализации, а оба стека видят одни и те же данные.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    private static final String H2_JDBC_URL_PREFIX = "jdbc:h2:";
+
+    /**
+     * Создает фабрику соединений R2DBC
+     *
+     * @param dataSourceProperties Тип: {@link DataSourceProperties}. Настройки источника данных JDBC
+     * @param storageProperties    Тип: {@link ObjectProvider ObjectProvider&lt;RegionStorageProperties&gt;}.
+     *                             Настройки хранения, доступные при хранении базы данных в памяти
+     * @return Возвращает фабрику соединений с базой данных H2 источника данных
+     */
+    @Bean
+    public ConnectionFactory connectionFactory(DataSourceProperties dataSourceProperties,
+                                               ObjectProvider<RegionStorageProperties> storageProperties) {
+        RegionStorageProperties storage = storageProperties.getIfAvailable();
+        String url = storage != null && storage.getMode() == RegionStorageProperties.Mode.MEMORY
+                ? storage.getMemoryUrl()
+                : dataSourceProperties.determineUrl();
+
+        if (url == null || !url.startsWith(H2_JDBC_URL_PREFIX)) {
+            throw new IllegalStateException("Reactive web application supports only H2 database, got " + url);
+        }
+
+        return new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(H2_JDBC_URL_PREFIX.length()))
+                .username(dataSourceProperties.determineUsername())
+                .password(dataSourceProperties.determinePassword())
+                .build());
+    }
+}
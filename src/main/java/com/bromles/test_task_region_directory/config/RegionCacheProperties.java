@@ -0,0 +1,76 @@
+package com.bromles.test_task_region_directory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки кэшей справочника регионов
+ * <p>
+ * Настройки задаются в формате спецификации Caffeine, например
+ * {@code maximumSize=1000,expireAfterWrite=10m,recordStats}.
+ */
+@ConfigurationProperties(prefix = "region-directory.cache")
+public class RegionCacheProperties {
+
+    /**
+     * Спецификация, используемая для кэшей без собственной спецификации
+     */
+    private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+
+    /**
+     * Спецификации отдельных кэшей по их названиям
+     */
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+    /**
+     * Получает спецификацию кэшей по умолчанию
+     *
+     * @return Возвращает спецификацию кэшей по умолчанию
+     * @see #setDefaultSpec(String)
+     */
+    public String getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    /**
+     * Сохраняет спецификацию кэшей по умолчанию
+     *
+     * @param defaultSpec Тип: {@link String}. Спецификация кэшей по умолчанию
+     * @see #getDefaultSpec()
+     */
+    public void setDefaultSpec(String defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    /**
+     * Получает спецификации отдельных кэшей
+     *
+     * @return Возвращает пары, состоящие из названия кэша и его спецификации
+     * @see #setSpecs(Map)
+     */
+    public Map<String, String> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * Сохраняет спецификации отдельных кэшей
+     *
+     * @param specs Тип: {@link Map Map&lt;String, String&gt;}. Пары, состоящие из названия кэша и его спецификации
+     * @see #getSpecs()
+     */
+    public void setSpecs(Map<String, String> specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * Получает спецификацию кэша по его названию
+     *
+     * @param cacheName Тип: {@link String}. Название кэша
+     * @return Возвращает собственную спецификацию кэша или спецификацию по умолчанию
+     */
+    public String getSpec(String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
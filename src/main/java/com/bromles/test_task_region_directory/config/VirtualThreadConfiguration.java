@@ -0,0 +1,94 @@
+package com.bromles.test_task_region_directory.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Конфигурация профиля виртуальных потоков {@code virtual-threads}
+ * <p>
+ * В профиле каждый запрос Tomcat, а вместе с ним и все обращения сервиса справочника к базе данных через JDBC,
+ * выполняется в собственном виртуальном потоке, поэтому количество одновременно обрабатываемых запросов ограничено
+ * только числом соединений Tomcat и размером пула соединений с базой данных. Виртуальные потоки доступны начиная с
+ * Java 21, а приложение собирается под Java 11, поэтому исполнитель создается через отражение.
+ */
+@Configuration
+@Profile("virtual-threads")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class VirtualThreadConfiguration {
+
+    private static final String THREAD_NAME_PREFIX = "virtual-";
+
+    /**
+     * Создает исполнитель, запускающий каждую задачу в новом виртуальном потоке
+     *
+     * @return Возвращает исполнитель на виртуальных потоках, завершаемый при остановке приложения
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor(THREAD_NAME_PREFIX);
+    }
+
+    /**
+     * Создает настройщик Tomcat, передающий обработку запросов исполнителю на виртуальных потоках
+     *
+     * @param virtualThreadExecutor Тип: {@link ExecutorService}. Исполнитель на виртуальных потоках
+     * @return Возвращает настройщик обработчика протокола Tomcat
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Создает исполнитель асинхронных задач приложения, в том числе асинхронных запросов Spring MVC, заменяющий
+     * пул потоков по умолчанию
+     *
+     * @param virtualThreadExecutor Тип: {@link ExecutorService}. Исполнитель на виртуальных потоках
+     * @return Возвращает исполнитель асинхронных задач на виртуальных потоках
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    /**
+     * Создает исполнитель вызовом {@code Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0)
+     * .factory())}. Потоки не переиспользуются: каждая задача получает новый виртуальный поток
+     *
+     * @param prefix Тип: {@link String}. Префикс имен потоков, за которым следует порядковый номер
+     * @return Возвращает исполнитель на именованных виртуальных потоках
+     * @throws IllegalStateException Исключение, генерируемое, если виртуальные потоки не поддерживаются
+     *                               версией Java
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        }
+        catch (ClassNotFoundException | NoSuchMethodException ex) {
+            throw new IllegalStateException("Profile 'virtual-threads' requires Java 21 or newer, running on " +
+                    System.getProperty("java.version"), ex);
+        }
+        catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Unable to create virtual thread executor", ex);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Содержит конфигурацию компонентов сервера
+ */
+package com.bromles.test_task_region_directory.config;
@@ -0,0 +1,203 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.exception.handler.ErrorResponse;
+import com.bromles.test_task_region_directory.service.IReactiveRegionDirectoryService;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Неблокирующий контроллер API справочника регионов
+ * <p>
+ * Обслуживает те же адреса, параметры и форматы ответов, что и {@link RegionDirectoryController}, в реактивном
+ * веб-приложении на Netty, где ни один поток не закрепляется за запросом на время его обработки. Пакетное
+ * добавление, импорт, постраничная выдача и условные запросы доступны только в сервлетном приложении.
+ */
+@RestController
+@RequestMapping(value = "v1/regions", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRegionDirectoryController {
+
+    private final IReactiveRegionDirectoryService regionDirectoryService;
+
+    private final String regionIdMapping = "/{id}";
+
+    ReactiveRegionDirectoryController(IReactiveRegionDirectoryService regionDirectoryService) {
+        this.regionDirectoryService = regionDirectoryService;
+    }
+
+    /**
+     * Эндпоинт POST-запросов для добавления нового региона в справочник
+     *
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных для добавления в справочник
+     * @return Возвращает издатель сущности ответа сервера, содержащей статус 200, статус успешности добавления и само
+     * добавленное значение
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> add(@Valid @RequestBody RegionDTO regionDTO) {
+        return regionDirectoryService.add(regionDTO)
+                .then(Mono.fromCallable(() -> successful(regionDTO)));
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения списка всех регионов
+     *
+     * @return Возвращает издатель регионов, записываемых в ответ в виде JSON-массива
+     */
+    @GetMapping
+    public Flux<RegionDTO> getAll() {
+        return regionDirectoryService.getAll();
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения списка регионов по наименованию
+     *
+     * @param name Тип: {@link String}. Наименование региона, по которому осуществляется поиск. Должен состоять только из
+     *             кириллических букв, пробелов, дефисов, тире и скобок. Регистр, буква ё и разделители не учитываются
+     * @return Возвращает издатель найденных регионов
+     */
+    @GetMapping(params = {"name"})
+    public Flux<RegionDTO> getByName(
+            @NotBlank(message = "Region name can't be blank")
+            @Size(max = 255, message = "Region name can't be longer than 255 characters")
+            @Pattern(regexp = "[а-яА-ЯёЁ() ‐–—-]+",
+                    message = "Region name must contain only Cyrillic, spaces, dashes and brackets")
+            @RequestParam String name) {
+        return regionDirectoryService.getByName(name);
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения списка регионов по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона, по которому осуществляется поиск.
+     *                      Состоит из кириллических букв и начинается с заглавной
+     * @return Возвращает издатель найденных регионов
+     */
+    @GetMapping(params = {"name-beginning"})
+    public Flux<RegionDTO> getByNameBeginning(
+            @Size(max = 255, message = "Beginning of region name can't be longer than 255 characters")
+            @Pattern(regexp = "[А-Я][а-я]*",
+                    message = "Beginning of region name can't be blank, must contain only Cyrillic letters and " +
+                            "begins with Capital one")
+            @RequestParam("name-beginning") String nameBeginning) {
+        return regionDirectoryService.getByNameBeginning(nameBeginning);
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения списка регионов по сокращенному наименованию
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование, по которому осуществляется поиск. Состоит из трех
+     *                  кириллических букв. Регистр и буква ё не учитываются
+     * @return Возвращает издатель найденных регионов
+     */
+    @GetMapping(params = {"short-name"})
+    public Flux<RegionDTO> getByShortName(
+            @Pattern(regexp = "[а-яА-ЯёЁ]{3}",
+                    message = "Region short name can't be blank and must be 3 Cyrillic letters")
+            @RequestParam("short-name") String shortName) {
+        return regionDirectoryService.getByShortName(shortName);
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения региона по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор региона, по которому осуществляется поиск. Состоит из 2 или 3 цифр и
+     *           не может состоять только из нулей
+     * @return Возвращает издатель найденного региона
+     */
+    @GetMapping(regionIdMapping)
+    public Mono<RegionDTO> getById(
+            @Pattern(regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
+                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros")
+            @PathVariable String id) {
+        return regionDirectoryService.getById(id);
+    }
+
+    /**
+     * Эндпоинт PUT-запросов для обновления региона по идентификатору
+     *
+     * @param id        Тип: {@link String}. Идентификатор региона, по которому осуществляется поиск. Состоит из 2 или 3
+     *                  цифр и не может состоять только из нулей
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных, на основе которого генерируется сущность,
+     *                  заменяющая данные в репозитории
+     * @return Возвращает издатель сущности ответа сервера, содержащей статус 200, статус успешности обновления записи и
+     * само обновляемое значение
+     */
+    @PutMapping(value = regionIdMapping, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> updateById(
+            @Pattern(regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
+                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros")
+            @PathVariable String id,
+            @Valid @RequestBody RegionDTO regionDTO) {
+        return regionDirectoryService.updateById(id, regionDTO)
+                .then(Mono.fromCallable(() -> successful(regionDTO)));
+    }
+
+    /**
+     * Эндпоинт DELETE-запросов для удаления региона по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор региона, по которому осуществляется поиск. Состоит из 2 или 3 цифр и
+     *           не может состоять только из нулей
+     * @return Возвращает издатель сущности ответа сервера, содержащей код 200 и статус успешности удаления
+     */
+    @DeleteMapping(regionIdMapping)
+    public Mono<ResponseEntity<Object>> deleteById(
+            @Pattern(regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
+                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros")
+            @PathVariable String id) {
+        return regionDirectoryService.deleteById(id)
+                .then(Mono.fromCallable(() -> ResponseEntity.<Object>ok(new ImmutablePair<>("successful", true))));
+    }
+
+    /**
+     * Обрабатывает исключение, генерируемое при попытке добавить в репозиторий сущность, нарушающую уникальность
+     * некоторых полей
+     *
+     * @param ex Тип: {@link DuplicateUniqueValuesException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую временную метку, статус 400, сообщение об ошибке и
+     * список пар, состоящих из названия поля-дубликата и его значения
+     */
+    @ExceptionHandler(DuplicateUniqueValuesException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleDuplicateKeyException(DuplicateUniqueValuesException ex) {
+        return ErrorResponse.violatedFields(HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getViolatedFields())
+                .toResponseEntity();
+    }
+
+    /**
+     * Обрабатывает исключение, генерируемое при отсутствии в репозитории искомой записи
+     *
+     * @param ex Тип: {@link RecordNotFoundException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую временную метку, статус 404 и сообщение об ошибке
+     */
+    @ExceptionHandler(RecordNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Object> handleRecordNotFoundException(RecordNotFoundException ex) {
+        return ErrorResponse.message(HttpStatus.NOT_FOUND, ex.getMessage()).toResponseEntity();
+    }
+
+    private static ResponseEntity<Object> successful(RegionDTO regionDTO) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("successful", true);
+        response.put("value", regionDTO);
+
+        return ResponseEntity.ok(response);
+    }
+}
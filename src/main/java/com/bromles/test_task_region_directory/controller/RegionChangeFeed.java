@@ -0,0 +1,300 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Поток изменений справочника регионов для подписчиков
+ * <p>
+ * Получает {@link RegionDirectoryChangedEvent} в потоке операции записи после изменения репозитория и раздает его
+ * подписчикам. Номер версии справочника после изменения служит номером события. Последние изменения хранятся в
+ * кольцевом буфере, поэтому подписчик, переподключившийся с номером последнего полученного события, получает
+ * пропущенные изменения. Если пропущенные изменения уже вытеснены из буфера, номер неизвестен или изменений больше,
+ * чем помещается в буфер подписчика, подписчик получает событие сброса и должен заново загрузить справочник.
+ * <p>
+ * У каждого подписчика есть собственная ограниченная очередь, из которой события отправляются в общем пуле потоков.
+ * Операция записи только добавляет событие в очереди без ожидания. Если очередь медленного подписчика переполнена, он
+ * получает уже поставленные в очередь события, после чего подписка завершается, и он должен переподключиться. Запись
+ * и остальные подписчики медленного подписчика не ждут.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(RegionChangeFeedProperties.class)
+public class RegionChangeFeed implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RegionChangeFeed.class);
+
+    /**
+     * Последние изменения по номеру версии, взятому по модулю размера буфера
+     */
+    private final RegionDirectoryChangedEvent[] history;
+
+    private final int subscriberBuffer;
+
+    private final Duration timeout;
+
+    private final ExecutorService executor;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Номер версии последнего изменения
+     */
+    private long lastVersion;
+
+    /**
+     * Номер версии самого старого изменения в буфере. Изменения в буфере идут подряд до {@link #lastVersion}
+     */
+    private long firstVersion;
+
+    @Autowired
+    RegionChangeFeed(IRegionDirectoryService regionDirectoryService, RegionChangeFeedProperties properties) {
+        this(regionDirectoryService.getVersion().getNumber(), properties.getReplaySize(),
+                properties.getSubscriberBuffer(), properties.getTimeout());
+    }
+
+    /**
+     * Конструктор потока изменений со всеми параметрами
+     *
+     * @param version          Тип: long. Номер текущей версии справочника
+     * @param replaySize       Тип: int. Количество последних изменений, хранимых для переподключившихся подписчиков
+     * @param subscriberBuffer Тип: int. Количество изменений, ожидающих отправки одному подписчику
+     * @param timeout          Тип: {@link Duration}. Время, после которого соединение с подписчиком закрывается
+     */
+    RegionChangeFeed(long version, int replaySize, int subscriberBuffer, Duration timeout) {
+        this.history = new RegionDirectoryChangedEvent[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeout = timeout;
+        this.lastVersion = version;
+        this.firstVersion = version + 1;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "region-change-feed");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Получает время жизни соединения с подписчиком
+     *
+     * @return Возвращает время, после которого соединение с подписчиком закрывается
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Подписывает получателя на изменения справочника
+     *
+     * @param lastEventId Тип: {@link String}. Значение заголовка {@code Last-Event-ID}: номер последнего полученного
+     *                    события или {@code null} для новой подписки
+     * @param subscriber  Тип: {@link Subscriber}. Получатель событий
+     * @return Возвращает подписку, отменяемую при закрытии соединения
+     */
+    public synchronized Subscription subscribe(String lastEventId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber, subscriberBuffer);
+
+        if (lastEventId != null) {
+            long resumedVersion = parseVersion(lastEventId);
+
+            if (resumedVersion < firstVersion - 1 || resumedVersion > lastVersion
+                    || lastVersion - resumedVersion > subscriberBuffer) {
+                subscription.resetVersion = lastVersion;
+            }
+            else {
+                for (long version = resumedVersion + 1; version <= lastVersion; version++) {
+                    subscription.queue.add(history[slotOf(version)]);
+                }
+            }
+        }
+
+        subscriptions.add(subscription);
+        subscription.schedule();
+
+        return subscription;
+    }
+
+    /**
+     * Обрабатывает событие изменения справочника, сохраняя его в буфере и добавляя в очереди подписчиков
+     *
+     * @param event Тип: {@link RegionDirectoryChangedEvent}. Событие изменения справочника
+     */
+    @EventListener
+    public synchronized void onDirectoryChanged(RegionDirectoryChangedEvent event) {
+        if (event.getVersion() != lastVersion + 1) {
+            firstVersion = event.getVersion();
+        }
+
+        lastVersion = event.getVersion();
+        history[slotOf(lastVersion)] = event;
+        firstVersion = Math.max(firstVersion, lastVersion - history.length + 1);
+
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.queue.offer(event)) {
+                subscription.overflowed = true;
+                subscriptions.remove(subscription);
+
+                log.debug("Change feed subscriber buffer overflowed at version {}", lastVersion);
+            }
+
+            subscription.schedule();
+        }
+    }
+
+    /**
+     * Завершает все подписки и останавливает пул потоков отправки
+     */
+    @Override
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.cancel();
+            subscription.subscriber.complete();
+        }
+
+        executor.shutdownNow();
+    }
+
+    private int slotOf(long version) {
+        return (int) Math.floorMod(version, (long) history.length);
+    }
+
+    private static long parseVersion(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        }
+        catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Получатель событий потока изменений
+     */
+    public interface Subscriber {
+
+        /**
+         * Отправляет изменение справочника
+         *
+         * @param event Тип: {@link RegionDirectoryChangedEvent}. Событие изменения справочника
+         * @throws IOException Исключение, генерируемое при разрыве соединения с подписчиком
+         */
+        void send(RegionDirectoryChangedEvent event) throws IOException;
+
+        /**
+         * Отправляет событие сброса, после которого подписчик должен заново загрузить справочник
+         *
+         * @param version Тип: long. Номер версии справочника, с которой продолжается поток изменений
+         * @throws IOException Исключение, генерируемое при разрыве соединения с подписчиком
+         */
+        void reset(long version) throws IOException;
+
+        /**
+         * Закрывает соединение с подписчиком
+         */
+        void complete();
+    }
+
+    /**
+     * Подписка на поток изменений с очередью неотправленных событий
+     */
+    public final class Subscription {
+
+        private final Subscriber subscriber;
+
+        private final BlockingQueue<RegionDirectoryChangedEvent> queue;
+
+        /**
+         * Признак того, что отправка событий поставлена в пул потоков или выполняется
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Номер версии для события сброса, отправляемого перед остальными событиями, или -1
+         */
+        private volatile long resetVersion = -1;
+
+        private volatile boolean overflowed;
+
+        private volatile boolean cancelled;
+
+        private Subscription(Subscriber subscriber, int capacity) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Отменяет подписку. Неотправленные события отбрасываются
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void schedule() {
+            if (hasWork() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private boolean hasWork() {
+            return resetVersion >= 0 || overflowed || !queue.isEmpty();
+        }
+
+        /**
+         * Отправляет события из очереди, пока она не опустеет. Завершает подписку после переполнения очереди или
+         * ошибки отправки
+         */
+        private void drain() {
+            do {
+                try {
+                    if (resetVersion >= 0) {
+                        subscriber.reset(resetVersion);
+                        resetVersion = -1;
+                    }
+
+                    RegionDirectoryChangedEvent event;
+
+                    while (!cancelled && (event = queue.poll()) != null) {
+                        subscriber.send(event);
+                    }
+
+                    if (overflowed && !cancelled) {
+                        cancel();
+                        subscriber.complete();
+                    }
+                }
+                catch (IOException | RuntimeException ex) {
+                    log.debug("Change feed subscriber disconnected", ex);
+
+                    cancel();
+                    subscriber.complete();
+                }
+
+                if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+
+                scheduled.set(false);
+            }
+            while (hasWork() && scheduled.compareAndSet(false, true));
+        }
+    }
+}
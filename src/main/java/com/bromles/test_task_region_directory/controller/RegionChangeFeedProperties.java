@@ -0,0 +1,101 @@
+package com.bromles.test_task_region_directory.controller;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки потока изменений справочника регионов
+ */
+@ConfigurationProperties(prefix = "region-directory.change-feed")
+public class RegionChangeFeedProperties {
+
+    /**
+     * Количество последних изменений, повторяемых подписчику, переподключившемуся с заголовком {@code Last-Event-ID}
+     */
+    private int replaySize = 1024;
+
+    /**
+     * Количество изменений, ожидающих отправки одному подписчику. При переполнении подписка завершается
+     */
+    private int subscriberBuffer = 256;
+
+    /**
+     * Время, после которого соединение с подписчиком закрывается, и он должен переподключиться
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Получает количество повторяемых изменений
+     *
+     * @return Возвращает количество последних изменений, хранимых для переподключившихся подписчиков
+     * @see #setReplaySize(int)
+     */
+    public int getReplaySize() {
+        return replaySize;
+    }
+
+    /**
+     * Сохраняет количество повторяемых изменений
+     *
+     * @param replaySize Тип: int. Количество последних изменений, хранимых для переподключившихся подписчиков. Не
+     *                   может быть меньше 1
+     * @see #getReplaySize()
+     */
+    public void setReplaySize(int replaySize) {
+        if (replaySize < 1) {
+            throw new IllegalArgumentException("Change feed replay size must be positive");
+        }
+
+        this.replaySize = replaySize;
+    }
+
+    /**
+     * Получает размер буфера подписчика
+     *
+     * @return Возвращает количество изменений, ожидающих отправки одному подписчику
+     * @see #setSubscriberBuffer(int)
+     */
+    public int getSubscriberBuffer() {
+        return subscriberBuffer;
+    }
+
+    /**
+     * Сохраняет размер буфера подписчика
+     *
+     * @param subscriberBuffer Тип: int. Количество изменений, ожидающих отправки одному подписчику. Не может быть
+     *                         меньше 1
+     * @see #getSubscriberBuffer()
+     */
+    public void setSubscriberBuffer(int subscriberBuffer) {
+        if (subscriberBuffer < 1) {
+            throw new IllegalArgumentException("Change feed subscriber buffer must be positive");
+        }
+
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    /**
+     * Получает время жизни соединения с подписчиком
+     *
+     * @return Возвращает время, после которого соединение закрывается
+     * @see #setTimeout(Duration)
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Сохраняет время жизни соединения с подписчиком
+     *
+     * @param timeout Тип: {@link Duration}. Время, после которого соединение закрывается. Должно быть положительным
+     * @see #getTimeout()
+     */
+    public void setTimeout(Duration timeout) {
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("Change feed timeout must be positive");
+        }
+
+        this.timeout = timeout;
+    }
+}
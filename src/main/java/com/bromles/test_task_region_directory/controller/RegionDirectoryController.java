@@ -1,11 +1,25 @@
 package com.bromles.test_task_region_directory.controller;
 
+import com.bromles.test_task_region_directory.controller.schema.BatchAddedResponse;
+import com.bromles.test_task_region_directory.controller.schema.RegionChangesResponse;
+import com.bromles.test_task_region_directory.controller.schema.RegionLookupResponse;
 import com.bromles.test_task_region_directory.controller.schema.SuccessfullyAddedOrUpdatedResponse;
 import com.bromles.test_task_region_directory.controller.schema.SuccessfullyDeletedResponse;
+import com.bromles.test_task_region_directory.entity.RegionChange;
 import com.bromles.test_task_region_directory.entity.RegionDTO;
 import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.InvalidPageTokenException;
 import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.exception.handler.ErrorResponse;
+import com.bromles.test_task_region_directory.importer.RegionImportFormat;
+import com.bromles.test_task_region_directory.importer.RegionImportReport;
+import com.bromles.test_task_region_directory.importer.RegionImporter;
 import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import com.bromles.test_task_region_directory.service.RegionChanges;
+import com.bromles.test_task_region_directory.service.RegionLookup;
+import com.bromles.test_task_region_directory.service.RegionPage;
+import com.bromles.test_task_region_directory.service.RegionPageToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -15,17 +29,29 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
-import java.util.Date;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,15 +61,54 @@ import java.util.Map;
  */
 @Tag(name = "Region directory", description = "Directory of regions")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "v1/regions", produces = MediaType.APPLICATION_JSON_VALUE)
 @Validated
 public class RegionDirectoryController {
     private final IRegionDirectoryService regionDirectoryService;
 
+    private final RegionDirectoryResponseCache responseCache;
+
+    private final RegionImporter regionImporter;
+
+    private final RegionChangeFeed changeFeed;
+
+    private final ObjectMapper objectMapper;
+
     private final String regionIdMapping = "/{id}";
 
-    RegionDirectoryController(IRegionDirectoryService regionDirectoryService) {
+    /**
+     * Заголовок ответа с токеном следующей страницы
+     */
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
+    /**
+     * Размер страницы, если указан только токен страницы
+     */
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+
+    /**
+     * Формат идентификатора региона: 2 или 3 цифры, не только нули
+     */
+    private static final String REGION_ID_REGEXP =
+            "([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])";
+
+    private static final java.util.regex.Pattern REGION_ID_PATTERN = java.util.regex.Pattern.compile(REGION_ID_REGEXP);
+
+    private static final ResponseEntity<Object> INVALID_REGION_ID_RESPONSE = ErrorResponse.errors(HttpStatus.BAD_REQUEST,
+            Collections.singletonList("Region id must be 2 or 3 digits and mustn't contain only zeros")).toResponseEntity();
+
+    private static final ResponseEntity<Object> INVALID_PAGE_TOKEN_RESPONSE =
+            ErrorResponse.message(HttpStatus.BAD_REQUEST, "Invalid page token").toResponseEntity();
+
+    RegionDirectoryController(IRegionDirectoryService regionDirectoryService,
+                              RegionDirectoryResponseCache responseCache, RegionImporter regionImporter,
+                              RegionChangeFeed changeFeed, ObjectMapper objectMapper) {
         this.regionDirectoryService = regionDirectoryService;
+        this.responseCache = responseCache;
+        this.regionImporter = regionImporter;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -76,30 +141,204 @@ public class RegionDirectoryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Эндпоинт POST-запросов для добавления списка регионов в справочник одним пакетом
+     * <p>
+     * Регионы сохраняются в одной транзакции пакетными запросами. Регионы с уже существующими или повторяющимися в
+     * пакете идентификаторами отклоняются, не прерывая добавление остальных.
+     *
+     * @param regionDTOs Тип: {@link List List&lt;RegionDTO&gt;}. Объекты трансфера данных для добавления в справочник.
+     *                   От 1 до 1000 элементов
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, статус успешности добавления всех регионов,
+     * количество добавленных и отклоненных регионов и результат добавления каждого региона в порядке следования
+     * @throws DuplicateUniqueValuesException Исключение, генерируемое, если пакет был отклонен целиком из-за
+     *                                        нарушения уникальности идентификатора
+     */
+    @Operation(summary = "Add a batch of regions")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchAddedResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid batch of regions supplied", content = @Content)
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> addAll(
+            @Parameter(description = "Regions to add", required = true,
+                    array = @ArraySchema(schema = @Schema(implementation = RegionDTO.class)))
+            @Size(min = 1, max = 1000, message = "Batch must contain from 1 to 1000 regions")
+            @Valid @RequestBody List<RegionDTO> regionDTOs) throws DuplicateUniqueValuesException {
+        List<DuplicateUniqueValuesException> failures = regionDirectoryService.addAll(regionDTOs);
+
+        List<Map<String, Object>> results = new ArrayList<>(regionDTOs.size());
+        int rejected = 0;
+
+        for (int i = 0; i < regionDTOs.size(); i++) {
+            DuplicateUniqueValuesException failure = failures.get(i);
+            Map<String, Object> result = new LinkedHashMap<>();
+
+            result.put("successful", failure == null);
+            result.put("value", regionDTOs.get(i));
+
+            if (failure != null) {
+                result.put("message", failure.getMessage());
+                result.put("violated-fields", failure.getViolatedFields());
+                rejected++;
+            }
+
+            results.add(result);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("successful", rejected == 0);
+        response.put("added", regionDTOs.size() - rejected);
+        response.put("rejected", rejected);
+        response.put("results", results);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Эндпоинт POST-запросов для потокового импорта регионов из файла CSV или NDJSON
+     * <p>
+     * Тело запроса читается построчно и не загружается в память целиком. Строки, не прошедшие валидацию или
+     * проверку уникальности идентификатора, отклоняются, не прерывая импорт остальных.
+     *
+     * @param contentType Тип: {@link String}. Тип содержимого запроса, определяющий формат файла
+     * @param body        Тип: {@link InputStream}. Поток тела запроса
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, количество прочитанных, добавленных и
+     * отклоненных строк, описания первых отклоненных строк и пропускную способность импорта
+     * @throws IOException Исключение, генерируемое при ошибке чтения тела запроса
+     */
+    @Operation(summary = "Import regions from a CSV or NDJSON file",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = {
+                    @Content(mediaType = "text/csv", schema = @Schema(type = "string",
+                            example = "id,name,short_name\n35,Вологодская область,ВОЛ")),
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(type = "string",
+                            example = "{\"id\":\"35\",\"name\":\"Вологодская область\",\"shortName\":\"ВОЛ\"}"))
+            }))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File imported", content = @Content),
+            @ApiResponse(responseCode = "415", description = "Unsupported file format", content = @Content)
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Object> importRegions(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @Parameter(hidden = true) InputStream body) throws IOException {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+
+        RegionImportReport report =
+                regionImporter.importRegions(body, charset, RegionImportFormat.fromMediaType(mediaType));
+
+        List<Map<String, Object>> rejectedRows = new ArrayList<>(report.getRejectedRows().size());
+
+        for (RegionImportReport.RejectedRow rejectedRow : report.getRejectedRows()) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("line", rejectedRow.getLine());
+            description.put("errors", rejectedRow.getErrors());
+
+            rejectedRows.add(description);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("successful", report.getRejected() == 0);
+        response.put("rows", report.getRows());
+        response.put("imported", report.getImported());
+        response.put("rejected", report.getRejected());
+        response.put("rejected-rows", rejectedRows);
+        response.put("elapsed-ms", report.getElapsedMillis());
+        response.put("rows-per-second", report.getRowsPerSecond());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Эндпоинт GET-запросов для получения списка всех регионов
+     * <p>
+     * Если справочник хранится в памяти, тело ответа берется из кэша заранее сериализованных ответов и отдается
+     * сжатым, если клиент поддерживает gzip. Иначе регионы читаются из репозитория построчно и сразу записываются в
+     * ответ, поэтому объем памяти на запрос не зависит от размера справочника. Если версия справочника совпадает с
+     * указанной в заголовке If-None-Match, возвращается статус 304 без обращения к репозиторию.
+     * <p>
+     * Если указан размер страницы или токен страницы, возвращается одна страница, а токен следующей страницы
+     * передается в заголовке X-Next-Page-Token.
      *
-     * @return Возвращает сущность ответа сервера, содержащую код 200 и список регионов
+     * @param limit          Тип: {@link Integer}. Необязательный размер страницы. От 1 до 100
+     * @param pageToken      Тип: {@link String}. Необязательный токен страницы из заголовка X-Next-Page-Token
+     *                       предыдущей страницы
+     * @param acceptEncoding Тип: {@link String}. Значение заголовка Accept-Encoding запроса
+     * @param webRequest     Тип: {@link WebRequest}. Текущий запрос, используемый для проверки условных заголовков
+     * @param response       Тип: {@link HttpServletResponse}. Ответ, в который записываются регионы при потоковой
+     *                       выдаче
+     * @return Возвращает сущность ответа сервера, содержащую код 200 и список регионов, или код 304, если справочник
+     * не изменился, или {@code null}, если ответ уже сформирован
      * @throws RecordNotFoundException Исключение, генерируемое при отсутствии сохраненных регионов в справочнике
+     * @throws IOException             Исключение, генерируемое при ошибке записи ответа
+     * @throws InvalidPageTokenException Исключение, генерируемое при получении некорректного токена страницы
      */
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = RegionDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Directory not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or page token supplied",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "No regions found", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<Object> getAll() throws RecordNotFoundException {
-        List<RegionDTO> regionDTOs = regionDirectoryService.getAll();
+    public ResponseEntity<Object> getAll(
+            @Parameter(description = "Maximum number of returned regions, first by name. Enables paging")
+            @Min(value = 1, message = "Limit must be between 1 and 100")
+            @Max(value = 100, message = "Limit must be between 1 and 100")
+            @RequestParam(required = false) Integer limit,
 
-        return ResponseEntity.ok(regionDTOs);
+            @Parameter(description = "Token of the next page from the " + NEXT_PAGE_TOKEN_HEADER +
+                    " header of the previous page")
+            @Size(max = 1024, message = "Page token can't be longer than 1024 characters")
+            @RequestParam(value = "page-token", required = false) String pageToken,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @Parameter(hidden = true) WebRequest webRequest,
+            @Parameter(hidden = true) HttpServletResponse response)
+            throws RecordNotFoundException, IOException, InvalidPageTokenException {
+        String eTag = regionDirectoryService.getVersion().toETag();
+
+        if (isNotModified(webRequest, eTag)) {
+            return notModified(eTag);
+        }
+
+        if (limit != null || pageToken != null) {
+            return withETag(toPageResponse(regionDirectoryService.getAllPage(decodePageToken(pageToken),
+                    pageLimit(limit))), eTag);
+        }
+
+        if (!regionDirectoryService.isHeldInMemory()) {
+            streamAll(response, eTag);
+
+            return null;
+        }
+
+        RegionDirectoryResponseCache.EncodedBody body = responseCache.getAll();
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptsGzip(acceptEncoding)) {
+            return responseBuilder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        else {
+            return responseBuilder.body(body.getJson());
+        }
     }
 
     /**
      * Эндпоинт GET-запросов для получения списка регионов по наименованию
      *
      * @param name Тип: {@link String}. Наименование региона, по которому осуществляется поиск. Должен состоять только из
-     *             кириллических букв, пробелов, дефисов и скобок
+     *             кириллических букв, пробелов, дефисов, тире и скобок. Регистр, буква ё и разделители не учитываются
      * @return Возвращает сущность ответа сервера, содержащую статус 200 и список найденных регионов
      * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике сохраненных регионов с
      *                                 данным наименованием
@@ -116,7 +355,7 @@ public class RegionDirectoryController {
             @Parameter(description = "Name of required region")
             @NotBlank(message = "Region name can't be blank")
             @Size(max = 255, message = "Region name can't be longer than 255 characters")
-            @Pattern(regexp = "[а-яА-Я() -]+",
+            @Pattern(regexp = "[а-яА-ЯёЁ() ‐–—-]+",
                     message = "Region name must contain only Cyrillic, spaces, dashes and brackets")
             @RequestParam String name) throws RecordNotFoundException {
         List<RegionDTO> regionDTOs = regionDirectoryService.getByName(name);
@@ -129,9 +368,14 @@ public class RegionDirectoryController {
      *
      * @param nameBeginning Тип: {@link String}. Начало наименования региона, по которому осуществляется поиск.
      *                      Состоит из кириллических букв и начинается с заглавной
+     * @param limit         Тип: {@link Integer}. Необязательный размер страницы, в том числе для режима
+     *                      автодополнения. От 1 до 100
+     * @param pageToken     Тип: {@link String}. Необязательный токен страницы из заголовка X-Next-Page-Token
+     *                      предыдущей страницы
      * @return Возвращает сущность ответа сервера, содержащую статус 200 и список найденных регионов
-     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике сохраненных регионов с
-     *                                 наименованием, начало которого совпадает с данным
+     * @throws RecordNotFoundException   Исключение, генерируемое при отсутствии в справочнике сохраненных регионов с
+     *                                   наименованием, начало которого совпадает с данным
+     * @throws InvalidPageTokenException Исключение, генерируемое при получении некорректного токена страницы
      */
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
@@ -148,20 +392,191 @@ public class RegionDirectoryController {
             @Pattern(regexp = "[А-Я][а-я]*",
                     message = "Beginning of region name can't be blank, must contain only Cyrillic letters and " +
                             "begins with Capital one")
-            @RequestParam("name-beginning") String nameBeginning) throws RecordNotFoundException {
+            @RequestParam("name-beginning") String nameBeginning,
+
+            @Parameter(description = "Maximum number of returned regions, first by name. Enables paging")
+            @Min(value = 1, message = "Limit must be between 1 and 100")
+            @Max(value = 100, message = "Limit must be between 1 and 100")
+            @RequestParam(required = false) Integer limit,
+
+            @Parameter(description = "Token of the next page from the " + NEXT_PAGE_TOKEN_HEADER +
+                    " header of the previous page")
+            @Size(max = 1024, message = "Page token can't be longer than 1024 characters")
+            @RequestParam(value = "page-token", required = false) String pageToken)
+            throws RecordNotFoundException, InvalidPageTokenException {
+        if (limit != null || pageToken != null) {
+            return toPageResponse(regionDirectoryService.getByNameBeginningPage(nameBeginning,
+                    decodePageToken(pageToken), pageLimit(limit)));
+        }
+
         List<RegionDTO> regionDTOs = regionDirectoryService.getByNameBeginning(nameBeginning);
 
         return ResponseEntity.ok(regionDTOs);
     }
 
+    /**
+     * Эндпоинт GET-запросов для нечеткого поиска регионов по наименованию с опечатками
+     *
+     * @param fuzzyName   Тип: {@link String}. Наименование или начало наименования региона, возможно с опечатками.
+     *                    Регистр, буква ё, дефисы и повторяющиеся пробелы не учитываются
+     * @param maxDistance Тип: {@link Integer}. Необязательное максимальное расстояние редактирования. От 0 до 3, по
+     *                    умолчанию 2
+     * @param limit       Тип: {@link Integer}. Необязательное максимальное количество регионов. От 1 до 100, по
+     *                    умолчанию 10
+     * @return Возвращает сущность ответа сервера, содержащую статус 200 и список найденных регионов от наиболее
+     * похожих к наименее похожим
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике похожих регионов
+     */
+    @Operation(summary = "Find regions by a name with typos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = RegionDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid name of region supplied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No regions found", content = @Content)
+    })
+    @GetMapping(params = {"fuzzy-name"})
+    public ResponseEntity<Object> getByFuzzyName(
+            @Parameter(description = "Name or beginning of name of required region, possibly with typos")
+            @NotBlank(message = "Region name can't be blank")
+            @Size(max = 255, message = "Region name can't be longer than 255 characters")
+            @Pattern(regexp = "[а-яА-ЯёЁ() ‐–—-]+",
+                    message = "Region name must contain only Cyrillic, spaces, dashes and brackets")
+            @RequestParam("fuzzy-name") String fuzzyName,
+
+            @Parameter(description = "Maximum edit distance, 2 by default")
+            @Min(value = 0, message = "Maximum distance must be between 0 and 3")
+            @Max(value = 3, message = "Maximum distance must be between 0 and 3")
+            @RequestParam(value = "max-distance", required = false, defaultValue = "2") Integer maxDistance,
+
+            @Parameter(description = "Maximum number of returned regions, 10 by default")
+            @Min(value = 1, message = "Limit must be between 1 and 100")
+            @Max(value = 100, message = "Limit must be between 1 and 100")
+            @RequestParam(required = false, defaultValue = "10") Integer limit) throws RecordNotFoundException {
+        List<RegionDTO> regionDTOs = regionDirectoryService.getByFuzzyName(fuzzyName, maxDistance, limit);
+
+        return ResponseEntity.ok(regionDTOs);
+    }
+
+    /**
+     * Эндпоинт GET-запросов для поиска регионов по словам наименования
+     *
+     * @param query Тип: {@link String}. Слова наименования региона через пробел. Регион найден, если его наименование
+     *              содержит все слова. Регистр, буква ё и разделители не учитываются
+     * @return Возвращает сущность ответа сервера, содержащую статус 200 и список найденных регионов
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике регионов, наименование
+     *                                 которых содержит все слова запроса
+     */
+    @Operation(summary = "Find regions by words of their names")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = RegionDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid query supplied", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No regions found", content = @Content)
+    })
+    @GetMapping(params = {"q"})
+    public ResponseEntity<Object> getByNameTokens(
+            @Parameter(description = "Words of name of required regions, all of them must be present")
+            @NotBlank(message = "Query can't be blank")
+            @Size(max = 255, message = "Query can't be longer than 255 characters")
+            @Pattern(regexp = "[а-яА-ЯёЁ() ‐–—-]+",
+                    message = "Query must contain only Cyrillic, spaces, dashes and brackets")
+            @RequestParam("q") String query) throws RecordNotFoundException {
+        List<RegionDTO> regionDTOs = regionDirectoryService.getByNameTokens(query);
+
+        return ResponseEntity.ok(regionDTOs);
+    }
+
+    /**
+     * Эндпоинт GET-запросов для подписки на поток изменений справочника в формате Server-Sent Events
+     * <p>
+     * Каждое добавление, изменение и удаление региона отправляется событием {@code added}, {@code updated} или
+     * {@code deleted} с номером версии справочника после изменения в качестве номера события. Событие {@code reset}
+     * означает, что пропущенные изменения не могут быть повторены, и справочник нужно загрузить заново
+     *
+     * @param lastEventId Тип: {@link String}. Необязательный номер последнего полученного события из заголовка
+     *                    Last-Event-ID или номер версии из ETag ответа со списком регионов
+     * @return Возвращает поток событий изменения справочника
+     */
+    @Operation(summary = "Subscribe to directory changes as Server-Sent Events")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(
+            @Parameter(description = "Version of the last received change to resume from")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(changeFeed.getTimeout().toMillis());
+        RegionChangeFeed.Subscription subscription =
+                changeFeed.subscribe(lastEventId, new SseChangeFeedSubscriber(emitter));
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onError(ex -> subscription.cancel());
+        emitter.onTimeout(() -> {
+            subscription.cancel();
+            emitter.complete();
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Эндпоинт GET-запросов для получения изменений справочника после версии журнала изменений
+     * <p>
+     * Для каждого региона, измененного после данной версии, возвращается его текущее значение или надгробие, если
+     * регион удален или его идентификатор изменен. Номер версии из ответа передается при следующем запросе
+     *
+     * @param since Тип: {@link Long}. Номер версии журнала из предыдущего ответа или 0 для получения всех регионов
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, номер версии журнала, по которую включены
+     * изменения, и список изменений в порядке возрастания версий
+     */
+    @Operation(summary = "Get changes of regions after a change log version")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RegionChangesResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid version supplied", content = @Content)
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<Object> getChangesSince(
+            @Parameter(description = "Change log version from the previous response, 0 to get all regions",
+                    required = true)
+            @Min(value = 0, message = "Version can't be negative")
+            @RequestParam Long since) {
+        RegionChanges regionChanges = regionDirectoryService.getChangesSince(since);
+        List<Map<String, Object>> changes = new ArrayList<>(regionChanges.getChanges().size());
+
+        for (RegionChange regionChange : regionChanges.getChanges()) {
+            Map<String, Object> change = new LinkedHashMap<>();
+            change.put("version", regionChange.getVersion());
+            change.put("id", regionChange.getId());
+            change.put("deleted", regionChange.isDeleted());
+            change.put("region", regionChange.toDTO());
+
+            changes.add(change);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("version", regionChanges.getVersion());
+        response.put("changes", changes);
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Эндпоинт GET-запросов для получения списка регионов по сокращенному наименованию
      *
      * @param shortName Тип: {@link String}. Сокращенное наименование, по которому осуществляется поиск. Состоит из трех
-     *                  заглавных кириллических букв
+     *                  кириллических букв. Регистр и буква ё не учитываются
+     * @param limit     Тип: {@link Integer}. Необязательный размер страницы. От 1 до 100
+     * @param pageToken Тип: {@link String}. Необязательный токен страницы из заголовка X-Next-Page-Token предыдущей
+     *                  страницы
      * @return Возвращает сущность ответа сервера, содержащую статус 200 и список найденных регионов
-     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике сохраненных регионов с
-     *                                 данным сокращенным наименованием
+     * @throws RecordNotFoundException   Исключение, генерируемое при отсутствии в справочнике сохраненных регионов с
+     *                                   данным сокращенным наименованием
+     * @throws InvalidPageTokenException Исключение, генерируемое при получении некорректного токена страницы
      */
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
@@ -173,20 +588,104 @@ public class RegionDirectoryController {
     @GetMapping(params = {"short-name"})
     public ResponseEntity<Object> getByShortName(
             @Parameter(description = "Short name of required region")
-            @Pattern(regexp = "[А-Я]{3}",
-                    message = "Region short name can't be blank and must be 3 Capital Cyrillic letters")
-            @RequestParam("short-name") String shortName) throws RecordNotFoundException {
+            @Pattern(regexp = "[а-яА-ЯёЁ]{3}",
+                    message = "Region short name can't be blank and must be 3 Cyrillic letters")
+            @RequestParam("short-name") String shortName,
+
+            @Parameter(description = "Maximum number of returned regions, first by name. Enables paging")
+            @Min(value = 1, message = "Limit must be between 1 and 100")
+            @Max(value = 100, message = "Limit must be between 1 and 100")
+            @RequestParam(required = false) Integer limit,
+
+            @Parameter(description = "Token of the next page from the " + NEXT_PAGE_TOKEN_HEADER +
+                    " header of the previous page")
+            @Size(max = 1024, message = "Page token can't be longer than 1024 characters")
+            @RequestParam(value = "page-token", required = false) String pageToken)
+            throws RecordNotFoundException, InvalidPageTokenException {
+        if (limit != null || pageToken != null) {
+            return toPageResponse(regionDirectoryService.getByShortNamePage(shortName,
+                    decodePageToken(pageToken), pageLimit(limit)));
+        }
+
         List<RegionDTO> regionDTOs = regionDirectoryService.getByShortName(shortName);
 
         return ResponseEntity.ok(regionDTOs);
     }
 
+    /**
+     * Эндпоинт GET-запросов для получения регионов по списку идентификаторов
+     * <p>
+     * Отсутствие некоторых регионов не считается ошибкой: их идентификаторы возвращаются в поле missing-ids.
+     *
+     * @param ids        Тип: {@link List List&lt;String&gt;}. Идентификаторы регионов через запятую. От 1 до 1000
+     *                   идентификаторов, каждый из 2 или 3 цифр и не только из нулей
+     * @param webRequest Тип: {@link WebRequest}. Текущий запрос, используемый для проверки условных заголовков
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, найденные регионы и идентификаторы
+     * ненайденных регионов в порядке запроса, или статус 304, если версия справочника не изменилась
+     */
+    @Operation(summary = "Get regions by a list of codes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RegionLookupResponse.class))}),
+            @ApiResponse(responseCode = "304", description = "Directory not modified", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid codes of regions supplied", content = @Content)
+    })
+    @GetMapping(params = {"ids"})
+    public ResponseEntity<Object> getByIds(
+            @Parameter(description = "Comma-separated codes of required regions", required = true)
+            @Size(min = 1, max = 1000, message = "Lookup must contain from 1 to 1000 region ids")
+            @RequestParam List<@Pattern(
+                    regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
+                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros") String> ids,
+            @Parameter(hidden = true) WebRequest webRequest) {
+        String eTag = regionDirectoryService.getVersion().toETag();
+
+        if (isNotModified(webRequest, eTag)) {
+            return notModified(eTag);
+        }
+
+        return withETag(toLookupResponse(regionDirectoryService.getByIds(ids)), eTag);
+    }
+
+    /**
+     * Эндпоинт POST-запросов для получения регионов по длинному списку идентификаторов, не помещающемуся в адрес
+     * запроса
+     *
+     * @param ids Тип: {@link List List&lt;String&gt;}. JSON-массив идентификаторов регионов. От 1 до 1000
+     *            идентификаторов, каждый из 2 или 3 цифр и не только из нулей
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, найденные регионы и идентификаторы
+     * ненайденных регионов в порядке запроса
+     */
+    @Operation(summary = "Get regions by a long list of codes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RegionLookupResponse.class))}),
+            @ApiResponse(responseCode = "400", description = "Invalid codes of regions supplied", content = @Content)
+    })
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> lookup(
+            @Parameter(description = "Codes of required regions", required = true,
+                    array = @ArraySchema(schema = @Schema(example = "77")))
+            @Size(min = 1, max = 1000, message = "Lookup must contain from 1 to 1000 region ids")
+            @RequestBody List<@Pattern(
+                    regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
+                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros") String> ids) {
+        return toLookupResponse(regionDirectoryService.getByIds(ids));
+    }
+
     /**
      * Эндпоинт GET-запросов для получения региона по идентификатору
+     * <p>
+     * Идентификатор проверяется в методе, а не валидатором параметров, чтобы запросы с некорректным идентификатором
+     * получали заранее созданный ответ без генерации исключения.
      *
-     * @param id Тип: {@link String}. Идентификатор региона, по которому осуществляется поиск. Состоит из 2 или 3 цифр и не
-     *           может состоять только из нулей
-     * @return Возвращает сущность ответа сервера, содержащую статус 200 и найденный регион
+     * @param id         Тип: {@link String}. Идентификатор региона, по которому осуществляется поиск. Состоит из 2 или
+     *                   3 цифр и не может состоять только из нулей
+     * @param webRequest Тип: {@link WebRequest}. Текущий запрос, используемый для проверки условных заголовков
+     * @return Возвращает сущность ответа сервера, содержащую статус 200 и найденный регион, или статус 304, если версия
+     * справочника не изменилась
      * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике сохраненного региона с
      *                                 данным идентификатором
      */
@@ -195,18 +694,29 @@ public class RegionDirectoryController {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = RegionDTO.class))}),
+            @ApiResponse(responseCode = "304", description = "Directory not modified", content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid code of region supplied", content = @Content),
             @ApiResponse(responseCode = "404", description = "No regions found", content = @Content)
     })
     @GetMapping(regionIdMapping)
     public ResponseEntity<Object> getById(
-            @Parameter(description = "Code of required region", required = true)
-            @Pattern(regexp = ("([0-9]{2}[1-9])|([0-9][1-9][0-9])|([1-9][0-9]{2})|([0-9][1-9])|([1-9][0-9])"),
-                    message = "Region id must be 2 or 3 digits and mustn't contain only zeros")
-            @PathVariable String id) throws RecordNotFoundException {
+            @Parameter(description = "Code of required region", required = true,
+                    schema = @Schema(type = "string", pattern = REGION_ID_REGEXP))
+            @PathVariable String id,
+            @Parameter(hidden = true) WebRequest webRequest) throws RecordNotFoundException {
+        if (!REGION_ID_PATTERN.matcher(id).matches()) {
+            return INVALID_REGION_ID_RESPONSE;
+        }
+
+        String eTag = regionDirectoryService.getVersion().toETag();
+
+        if (isNotModified(webRequest, eTag)) {
+            return notModified(eTag);
+        }
+
         RegionDTO regionDTO = regionDirectoryService.getById(id);
 
-        return ResponseEntity.ok(regionDTO);
+        return ResponseEntity.ok().eTag(eTag).body(regionDTO);
     }
 
     /**
@@ -279,6 +789,167 @@ public class RegionDirectoryController {
         return ResponseEntity.ok(new ImmutablePair<>("successful", true));
     }
 
+    /**
+     * Записывает все регионы в ответ в виде JSON-массива по мере их чтения из репозитория
+     *
+     * @param response Тип: {@link HttpServletResponse}. Ответ, в который записываются регионы
+     * @param eTag     Тип: {@link String}. ETag версии справочника, добавляемый в ответ при записи первого региона
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии сохраненных регионов в справочнике. В
+     *                                 этом случае в ответ ничего не записывается
+     * @throws IOException             Исключение, генерируемое при ошибке записи ответа
+     */
+    private void streamAll(HttpServletResponse response, String eTag) throws RecordNotFoundException, IOException {
+        try (RegionJsonArrayWriter writer = new RegionJsonArrayWriter(objectMapper, () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+
+            return response.getOutputStream();
+        })) {
+            if (regionDirectoryService.streamAll(writer) == 0) {
+                throw new RecordNotFoundException();
+            }
+
+            writer.finish();
+        }
+    }
+
+    /**
+     * Разбирает необязательный токен страницы
+     *
+     * @param pageToken Тип: {@link String}. Токен страницы из параметров запроса
+     * @return Возвращает разобранный токен или {@code null} для первой страницы
+     * @throws InvalidPageTokenException Исключение, генерируемое при получении некорректного токена страницы
+     */
+    private static RegionPageToken decodePageToken(String pageToken) throws InvalidPageTokenException {
+        return pageToken != null ? RegionPageToken.decode(pageToken) : null;
+    }
+
+    /**
+     * Получает размер страницы
+     *
+     * @param limit Тип: {@link Integer}. Размер страницы из параметров запроса
+     * @return Возвращает данный размер страницы или размер по умолчанию, если он не указан
+     */
+    private static int pageLimit(Integer limit) {
+        return limit != null ? limit : DEFAULT_PAGE_LIMIT;
+    }
+
+    /**
+     * Формирует ответ со страницей регионов
+     *
+     * @param page Тип: {@link RegionPage}. Страница регионов
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, список регионов страницы и, если страница не
+     * последняя, заголовок с токеном следующей страницы
+     */
+    private static ResponseEntity<Object> toPageResponse(RegionPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.getNextPageToken() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, page.getNextPageToken().encode());
+        }
+
+        return response.body(page.getRegionDTOs());
+    }
+
+    /**
+     * Формирует ответ с результатом поиска регионов по списку идентификаторов
+     *
+     * @param lookup Тип: {@link RegionLookup}. Результат поиска
+     * @return Возвращает сущность ответа сервера, содержащую статус 200, найденные регионы и идентификаторы
+     * ненайденных регионов
+     */
+    private static ResponseEntity<Object> toLookupResponse(RegionLookup lookup) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("regions", lookup.getRegionDTOs());
+        response.put("missing-ids", lookup.getMissingIds());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Проверяет заголовок If-None-Match запроса по ETag текущей версии справочника
+     * <p>
+     * ETag является единственным валидатором: номер версии меняется при каждом изменении справочника, а время
+     * изменения с точностью до секунды, передаваемое в Last-Modified, может не измениться. Поэтому Last-Modified не
+     * отправляется, а If-Modified-Since не проверяется.
+     *
+     * @param webRequest Тип: {@link WebRequest}. Текущий запрос
+     * @param eTag       Тип: {@link String}. ETag текущей версии справочника
+     * @return Возвращает {@code true}, если справочник не изменился с версии, известной клиенту
+     */
+    private static boolean isNotModified(WebRequest webRequest, String eTag) {
+        String[] ifNoneMatch = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        String opaqueTag = stripWeakPrefix(eTag);
+
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+
+                if (tag.equals("*") || stripWeakPrefix(tag).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Формирует ответ 304 с ETag текущей версии справочника
+     *
+     * @param eTag Тип: {@link String}. ETag текущей версии справочника
+     * @return Возвращает сущность ответа сервера со статусом 304 без тела
+     */
+    private static ResponseEntity<Object> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    /**
+     * Добавляет ETag версии справочника в успешный ответ. Ответы об ошибках ETag не содержат
+     *
+     * @param response Тип: {@link ResponseEntity ResponseEntity&lt;Object&gt;}. Успешный ответ
+     * @param eTag     Тип: {@link String}. ETag версии справочника, по которой сформирован ответ
+     * @return Возвращает сущность ответа сервера с тем же статусом и телом и заголовком ETag
+     */
+    private static ResponseEntity<Object> withETag(ResponseEntity<Object> response, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.setETag(eTag);
+
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+
+    /**
+     * Проверяет, принимает ли клиент ответы, сжатые gzip
+     *
+     * @param acceptEncoding Тип: {@link String}. Значение заголовка Accept-Encoding запроса
+     * @return Возвращает {@code true}, если gzip указан в заголовке с ненулевым весом
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Обрабатывает исключение, генерируемое при попытке добавить в репозиторий сущность, нарушающую уникальность
      * некоторых полей
@@ -290,14 +961,20 @@ public class RegionDirectoryController {
     @ExceptionHandler(DuplicateUniqueValuesException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Object> handleDuplicateKeyException(DuplicateUniqueValuesException ex) {
-        Map<String, Object> exceptionData = new LinkedHashMap<>();
-
-        exceptionData.put("timestamp", new Date());
-        exceptionData.put("status", HttpStatus.BAD_REQUEST.value());
-        exceptionData.put("message", ex.getMessage());
-        exceptionData.put("violated-fields", ex.getViolatedFields());
+        return ErrorResponse.violatedFields(HttpStatus.BAD_REQUEST, ex.getMessage(), ex.getViolatedFields())
+                .toResponseEntity();
+    }
 
-        return ResponseEntity.badRequest().body(exceptionData);
+    /**
+     * Обрабатывает исключение, генерируемое при получении некорректного токена страницы
+     *
+     * @param ex Тип: {@link InvalidPageTokenException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую временную метку, статус 400 и сообщение об ошибке
+     */
+    @ExceptionHandler(InvalidPageTokenException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleInvalidPageTokenException(InvalidPageTokenException ex) {
+        return INVALID_PAGE_TOKEN_RESPONSE;
     }
 
     /**
@@ -309,12 +986,6 @@ public class RegionDirectoryController {
     @ExceptionHandler(RecordNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<Object> handleRecordNotFoundException(RecordNotFoundException ex) {
-        Map<String, Object> exceptionData = new LinkedHashMap<>();
-
-        exceptionData.put("timestamp", new Date());
-        exceptionData.put("status", HttpStatus.NOT_FOUND.value());
-        exceptionData.put("message", ex.getMessage());
-
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionData);
+        return ErrorResponse.message(HttpStatus.NOT_FOUND, ex.getMessage()).toResponseEntity();
     }
 }
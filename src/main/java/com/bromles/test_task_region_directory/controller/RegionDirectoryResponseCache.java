@@ -0,0 +1,147 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш заранее сериализованных тел ответов контроллера справочника регионов
+ * <p>
+ * Хранит список всех регионов в виде JSON в кодировке UTF-8 и его сжатую gzip копию. Тела ответов строятся при
+ * первом запросе после изменения справочника и сбрасываются по событию {@link RegionDirectoryChangedEvent}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RegionDirectoryResponseCache {
+
+    private final IRegionDirectoryService regionDirectoryService;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Номер поколения справочника, увеличивающийся при каждом изменении
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<EncodedBody> allRegions = new AtomicReference<>();
+
+    RegionDirectoryResponseCache(IRegionDirectoryService regionDirectoryService, ObjectMapper objectMapper) {
+        this.regionDirectoryService = regionDirectoryService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Получает сериализованный список всех регионов
+     *
+     * @return Возвращает тело ответа, соответствующее текущему состоянию справочника
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии регионов в справочнике
+     */
+    public EncodedBody getAll() throws RecordNotFoundException {
+        long observedGeneration = generation.get();
+        EncodedBody body = allRegions.get();
+
+        if (body != null && body.generation == observedGeneration) {
+            return body;
+        }
+
+        List<RegionDTO> regionDTOs = regionDirectoryService.getAll();
+        EncodedBody built = EncodedBody.encode(serialize(regionDTOs), observedGeneration);
+
+        allRegions.set(built);
+
+        return built;
+    }
+
+    /**
+     * Сбрасывает все сохраненные тела ответов
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        allRegions.set(null);
+    }
+
+    /**
+     * Обрабатывает событие изменения справочника, сбрасывая сохраненные тела ответов
+     *
+     * @param event Тип: {@link RegionDirectoryChangedEvent}. Событие изменения справочника
+     */
+    @EventListener
+    public void onDirectoryChanged(RegionDirectoryChangedEvent event) {
+        invalidate();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        }
+        catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize response body", ex);
+        }
+    }
+
+    /**
+     * Сериализованное тело ответа в исходном и сжатом виде
+     */
+    public static final class EncodedBody {
+
+        private final byte[] json;
+
+        private final byte[] gzip;
+
+        /**
+         * Поколение справочника, по состоянию на которое построено тело ответа
+         */
+        private final long generation;
+
+        private EncodedBody(byte[] json, byte[] gzip, long generation) {
+            this.json = json;
+            this.gzip = gzip;
+            this.generation = generation;
+        }
+
+        private static EncodedBody encode(byte[] json, long generation) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+                gzipStream.write(json);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            return new EncodedBody(json, compressed.toByteArray(), generation);
+        }
+
+        /**
+         * Получает тело ответа в виде JSON в кодировке UTF-8
+         *
+         * @return Возвращает массив байтов тела ответа. Массив не должен изменяться
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * Получает сжатое gzip тело ответа
+         *
+         * @return Возвращает массив байтов сжатого тела ответа. Массив не должен изменяться
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
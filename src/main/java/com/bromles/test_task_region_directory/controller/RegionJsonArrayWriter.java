@@ -0,0 +1,87 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Потоковая запись регионов в виде JSON-массива
+ * <p>
+ * Каждый регион сериализуется сразу при получении, поэтому объем используемой памяти не зависит от количества
+ * регионов. Поток вывода открывается только при получении первого региона, чтобы при их отсутствии ответ оставался
+ * незафиксированным и мог быть заменен ответом об ошибке.
+ * <p>
+ * Регионы записываются без сброса потока после каждого из них: генератор передает данные в поток по заполнении
+ * буфера и один раз при завершении массива.
+ */
+final class RegionJsonArrayWriter implements Consumer<RegionDTO>, Closeable {
+
+    private final ObjectWriter objectWriter;
+
+    private final OutputStreamOpener outputStreamOpener;
+
+    private JsonGenerator generator;
+
+    RegionJsonArrayWriter(ObjectMapper objectMapper, OutputStreamOpener outputStreamOpener) {
+        this.objectWriter = objectMapper.writerFor(RegionDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.outputStreamOpener = outputStreamOpener;
+    }
+
+    @Override
+    public void accept(RegionDTO regionDTO) {
+        try {
+            if (generator == null) {
+                generator = objectWriter.getFactory().createGenerator(outputStreamOpener.open())
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartArray();
+            }
+
+            objectWriter.writeValue(generator, regionDTO);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Завершает JSON-массив, если в него был записан хотя бы один регион. Вызывается после записи всех регионов
+     *
+     * @throws IOException Исключение, генерируемое при ошибке записи в поток вывода
+     */
+    public void finish() throws IOException {
+        if (generator != null) {
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Закрывает поток вывода. Если массив не был завершен вызовом {@link #finish()}, например, из-за ошибки чтения
+     * регионов, он остается незавершенным, чтобы клиент получил некорректный JSON, а не укороченный корректный массив
+     *
+     * @throws IOException Исключение, генерируемое при ошибке записи в поток вывода
+     */
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+    }
+
+    /**
+     * Открывает поток вывода при записи первого региона
+     */
+    @FunctionalInterface
+    interface OutputStreamOpener {
+
+        OutputStream open() throws IOException;
+    }
+}
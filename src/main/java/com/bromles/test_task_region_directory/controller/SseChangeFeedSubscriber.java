@@ -0,0 +1,50 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Получатель потока изменений справочника, отправляющий события в соединение Server-Sent Events
+ * <p>
+ * Изменение отправляется событием с именем вида операции в нижнем регистре, номером версии справочника в качестве
+ * номера события и данными события в формате JSON.
+ */
+class SseChangeFeedSubscriber implements RegionChangeFeed.Subscriber {
+
+    /**
+     * Имя события сброса
+     */
+    private static final String RESET_EVENT = "reset";
+
+    private final SseEmitter emitter;
+
+    SseChangeFeedSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(RegionDirectoryChangedEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(event.getVersion()))
+                .name(event.getOperation().name().toLowerCase(Locale.ROOT))
+                .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void reset(long version) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(version))
+                .name(RESET_EVENT)
+                .data(Collections.singletonMap("version", version), MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void complete() {
+        emitter.complete();
+    }
+}
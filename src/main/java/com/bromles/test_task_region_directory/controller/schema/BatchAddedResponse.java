@@ -0,0 +1,74 @@
+package com.bromles.test_task_region_directory.controller.schema;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "Batch added", description = "Regions added in a batch, with a result for every supplied region")
+public class BatchAddedResponse {
+
+    @Schema(example = "false")
+    private Boolean successful;
+
+    @Schema(example = "2")
+    private Integer added;
+
+    @Schema(example = "1")
+    private Integer rejected;
+
+    @ArraySchema(schema = @Schema(implementation = Result.class))
+    private List<Result> results;
+
+    public Boolean getSuccessful() {
+        return successful;
+    }
+
+    public Integer getAdded() {
+        return added;
+    }
+
+    public Integer getRejected() {
+        return rejected;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    @Schema(name = "Batch item result", description = "Result of adding a single region of the batch")
+    public static class Result {
+
+        @Schema(example = "false")
+        private Boolean successful;
+
+        @Schema(implementation = RegionDTO.class)
+        private RegionDTO value;
+
+        @Schema(example = "Duplicate primary key or unique index")
+        private String message;
+
+        @Schema(example = "{\"id\": \"77\"}")
+        @JsonProperty("violated-fields")
+        private Map<String, Object> violatedFields;
+
+        public Boolean getSuccessful() {
+            return successful;
+        }
+
+        public RegionDTO getValue() {
+            return value;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Map<String, Object> getViolatedFields() {
+            return violatedFields;
+        }
+    }
+}
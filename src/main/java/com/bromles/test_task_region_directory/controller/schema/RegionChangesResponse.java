@@ -0,0 +1,57 @@
+package com.bromles.test_task_region_directory.controller.schema;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "Region changes", description = "Latest changes of regions after a change log version")
+public class RegionChangesResponse {
+
+    @Schema(example = "128")
+    private Long version;
+
+    @ArraySchema(schema = @Schema(implementation = Change.class))
+    private List<Change> changes;
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    @Schema(name = "Region change", description = "Current value of a changed region or a tombstone of a deleted one")
+    public static class Change {
+
+        @Schema(example = "127")
+        private Long version;
+
+        @Schema(example = "77")
+        private String id;
+
+        @Schema(example = "false")
+        private Boolean deleted;
+
+        @Schema(implementation = RegionDTO.class, nullable = true)
+        private RegionDTO region;
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Boolean getDeleted() {
+            return deleted;
+        }
+
+        public RegionDTO getRegion() {
+            return region;
+        }
+    }
+}
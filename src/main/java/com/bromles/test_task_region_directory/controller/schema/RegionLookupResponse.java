@@ -0,0 +1,27 @@
+package com.bromles.test_task_region_directory.controller.schema;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "Regions by codes", description = "Regions found by a list of codes and codes of missing regions")
+public class RegionLookupResponse {
+
+    @ArraySchema(schema = @Schema(implementation = RegionDTO.class))
+    private List<RegionDTO> regions;
+
+    @ArraySchema(schema = @Schema(example = "99"))
+    @JsonProperty("missing-ids")
+    private List<String> missingIds;
+
+    public List<RegionDTO> getRegions() {
+        return regions;
+    }
+
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,70 @@
+package com.bromles.test_task_region_directory.entity;
+
+/**
+ * Запись журнала изменений справочника регионов
+ * <p>
+ * Содержит номер версии журнала, в которой изменился регион с данным идентификатором, и текущее значение региона.
+ * Если регион с этим идентификатором удален или идентификатор изменен, запись является надгробием и не содержит
+ * наименований.
+ */
+public class RegionChange {
+
+    private final Long version;
+
+    private final String id;
+
+    private final String name;
+
+    private final String shortName;
+
+    /**
+     * Конструктор записи журнала со всеми параметрами
+     *
+     * @param version   Тип: {@link Long}. Номер версии журнала изменений
+     * @param id        Тип: {@link String}. Идентификатор измененного региона
+     * @param name      Тип: {@link String}. Наименование региона или {@code null}, если регион удален
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона или {@code null}, если регион удален
+     */
+    public RegionChange(Long version, String id, String name, String shortName) {
+        this.version = version;
+        this.id = id;
+        this.name = name;
+        this.shortName = shortName;
+    }
+
+    /**
+     * Получает номер версии журнала изменений
+     *
+     * @return Возвращает номер версии, в которой изменился регион
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Получает идентификатор измененного региона
+     *
+     * @return Возвращает идентификатор региона
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Проверяет, является ли запись надгробием
+     *
+     * @return Возвращает {@code true}, если регион с данным идентификатором удален
+     */
+    public boolean isDeleted() {
+        return name == null;
+    }
+
+    /**
+     * Генерирует объект трансфера данных текущего значения региона
+     *
+     * @return Возвращает сгенерированный объект трансфера данных или {@code null}, если регион удален
+     */
+    public RegionDTO toDTO() {
+        return isDeleted() ? null : new RegionDTO(id, name, shortName);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bromles.test_task_region_directory.event;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+/**
+ * Событие изменения справочника регионов
+ * <p>
+ * Публикуется сервисом справочника после успешного изменения репозитория, в порядке выполнения операций записи.
+ */
+public class RegionDirectoryChangedEvent {
+
+    /**
+     * Вид операции, изменившей справочник
+     */
+    public enum Operation {
+        ADDED, UPDATED, DELETED
+    }
+
+    private final long version;
+
+    private final Operation operation;
+
+    private final String id;
+
+    private final RegionDTO region;
+
+    /**
+     * Конструктор события со всеми параметрами
+     *
+     * @param version   Тип: long. Номер версии справочника после изменения
+     * @param operation Тип: {@link Operation}. Вид операции, изменившей справочник
+     * @param id        Тип: {@link String}. Идентификатор измененного региона до изменения
+     * @param region    Тип: {@link RegionDTO}. Новое значение региона или {@code null}, если регион удален
+     */
+    public RegionDirectoryChangedEvent(long version, Operation operation, String id, RegionDTO region) {
+        this.version = version;
+        this.operation = operation;
+        this.id = id;
+        this.region = region;
+    }
+
+    /**
+     * Получает номер версии справочника после изменения
+     *
+     * @return Возвращает номер версии справочника
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Получает вид операции, изменившей справочник
+     *
+     * @return Возвращает вид операции
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Получает идентификатор измененного региона до изменения
+     *
+     * @return Возвращает идентификатор региона
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Получает новое значение региона
+     *
+     * @return Возвращает объект трансфера данных или {@code null}, если регион удален
+     */
+    public RegionDTO getRegion() {
+        return region;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Содержит события изменения справочника регионов
+ */
+package com.bromles.test_task_region_directory.event;
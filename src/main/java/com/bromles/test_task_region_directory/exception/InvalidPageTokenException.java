@@ -0,0 +1,35 @@
+package com.bromles.test_task_region_directory.exception;
+
+/**
+ * Исключение, генерируемое при получении токена страницы, который невозможно разобрать
+ * <p>
+ * Исключение описывает ошибку клиента и создается без трассировки стека.
+ */
+public class InvalidPageTokenException extends Exception {
+
+    private final String pageToken;
+
+    /**
+     * Конструктор, генерирующий исключение на основе полученного токена
+     *
+     * @param pageToken Тип: {@link String}. Полученный токен страницы
+     */
+    public InvalidPageTokenException(String pageToken) {
+        super(null, null, false, false);
+        this.pageToken = pageToken;
+    }
+
+    /**
+     * Получает токен страницы, который не удалось разобрать
+     *
+     * @return Возвращает полученный токен страницы
+     */
+    public String getPageToken() {
+        return pageToken;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Invalid page token";
+    }
+}
@@ -2,6 +2,9 @@ package com.bromles.test_task_region_directory.exception;
 
 /**
  * Исключение, генерируемое при отсутствии в репозитории искомой записи
+ * <p>
+ * Отсутствие записи - ожидаемый результат запроса, а не ошибка программы, поэтому исключение создается без
+ * трассировки стека и подавленных исключений. Неизменяемый экземпляр можно создать заранее и генерировать повторно.
  */
 public class RecordNotFoundException extends Exception {
     private final String fieldName;
@@ -12,6 +15,7 @@ public class RecordNotFoundException extends Exception {
      * @param fieldName Тип: {@link String}. Название поля, по которому осуществлялся поиск
      */
     public RecordNotFoundException(String fieldName) {
+        super(null, null, false, false);
         this.fieldName = fieldName;
     }
 
@@ -19,6 +23,7 @@ public class RecordNotFoundException extends Exception {
      * Конструктор исключения без параметров
      */
     public RecordNotFoundException() {
+        super(null, null, false, false);
         fieldName = null;
     }
 
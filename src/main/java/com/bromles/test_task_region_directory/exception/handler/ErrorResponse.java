@@ -0,0 +1,129 @@
+package com.bromles.test_task_region_directory.exception.handler;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемое тело ответа сервера об ошибке
+ * <p>
+ * Временная метка вычисляется при сериализации, поэтому тела ответов с постоянным содержимым создаются один раз и
+ * используются для всех ответов с этой ошибкой. Поля со значением {@code null} в ответ не записываются.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"timestamp", "status", "message", "errors", "violated-fields"})
+public final class ErrorResponse {
+
+    private final int status;
+
+    private final String message;
+
+    private final List<String> errors;
+
+    private final Map<String, Object> violatedFields;
+
+    private ErrorResponse(HttpStatus status, String message, List<String> errors, Map<String, Object> violatedFields) {
+        this.status = status.value();
+        this.message = message;
+        this.errors = errors;
+        this.violatedFields = violatedFields;
+    }
+
+    /**
+     * Создает тело ответа с сообщением об ошибке
+     *
+     * @param status  Тип: {@link HttpStatus}. Статус ответа
+     * @param message Тип: {@link String}. Сообщение об ошибке
+     * @return Возвращает тело ответа, содержащее временную метку, статус и сообщение об ошибке
+     */
+    public static ErrorResponse message(HttpStatus status, String message) {
+        return new ErrorResponse(status, message, null, null);
+    }
+
+    /**
+     * Создает тело ответа со списком ошибок валидации
+     *
+     * @param status Тип: {@link HttpStatus}. Статус ответа
+     * @param errors Тип: {@link List List&lt;String&gt;}. Сообщения об ошибках
+     * @return Возвращает тело ответа, содержащее временную метку, статус и список ошибок
+     */
+    public static ErrorResponse errors(HttpStatus status, List<String> errors) {
+        return new ErrorResponse(status, null, Collections.unmodifiableList(errors), null);
+    }
+
+    /**
+     * Создает тело ответа о нарушении уникальности полей
+     *
+     * @param status         Тип: {@link HttpStatus}. Статус ответа
+     * @param message        Тип: {@link String}. Сообщение об ошибке
+     * @param violatedFields Тип: {@link Map Map&lt;String, Object&gt;}. Пары, состоящие из названия поля-дубликата и
+     *                       его значения
+     * @return Возвращает тело ответа, содержащее временную метку, статус, сообщение об ошибке и поля-дубликаты
+     */
+    public static ErrorResponse violatedFields(HttpStatus status, String message, Map<String, Object> violatedFields) {
+        return new ErrorResponse(status, message, null, violatedFields);
+    }
+
+    /**
+     * Создает сущность ответа сервера с данным телом. Сущность неизменяема и может быть создана заранее
+     *
+     * @return Возвращает сущность ответа сервера со статусом и телом об ошибке
+     */
+    public ResponseEntity<Object> toResponseEntity() {
+        return ResponseEntity.status(status).body(this);
+    }
+
+    /**
+     * Получает временную метку ответа
+     *
+     * @return Возвращает момент сериализации тела ответа
+     */
+    public Date getTimestamp() {
+        return new Date();
+    }
+
+    /**
+     * Получает статус ответа
+     *
+     * @return Возвращает код HTTP-статуса ответа
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Получает сообщение об ошибке
+     *
+     * @return Возвращает сообщение об ошибке или {@code null}, если ответ содержит список ошибок
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Получает список ошибок валидации
+     *
+     * @return Возвращает неизменяемый список сообщений об ошибках или {@code null}, если ответ содержит одно сообщение
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Получает поля-дубликаты
+     *
+     * @return Возвращает пары, состоящие из названия поля-дубликата и его значения, или {@code null}, если ответ не
+     * описывает нарушение уникальности
+     */
+    @JsonProperty("violated-fields")
+    public Map<String, Object> getViolatedFields() {
+        return violatedFields;
+    }
+}
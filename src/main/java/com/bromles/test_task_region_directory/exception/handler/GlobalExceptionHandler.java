@@ -1,6 +1,7 @@
 package com.bromles.test_task_region_directory.exception.handler;
 
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,15 +17,29 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import javax.validation.ConstraintViolationException;
-import java.util.*;
+import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Глобальный обработчик исключений на уровне контроллеров
+ * <p>
+ * Ответы об ошибках с постоянным содержимым создаются один раз при загрузке класса.
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final ResponseEntity<Object> UNFORMED_JSON_RESPONSE =
+            ErrorResponse.message(HttpStatus.BAD_REQUEST, "Unformed JSON in request body").toResponseEntity();
+
+    private static final ResponseEntity<Object> UNSUPPORTED_MEDIA_TYPE_RESPONSE =
+            ErrorResponse.message(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Server supports only application/json")
+                    .toResponseEntity();
+
+    private static final ResponseEntity<Object> HANDLER_NOT_FOUND_RESPONSE =
+            ErrorResponse.message(HttpStatus.INTERNAL_SERVER_ERROR, "Exception handler not found").toResponseEntity();
+
     /**
      * Обрабатывает исключение, генерируемое при невозможности конвертировать параметр запроса в требуемый тип
      *
@@ -37,9 +52,10 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected ResponseEntity<Object> handleTypeMismatch(TypeMismatchException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        return generate(HttpStatus.BAD_REQUEST, "message",
+        return ErrorResponse.message(HttpStatus.BAD_REQUEST,
                 String.format("The parameter '%s' of value '%s' could not be converted to type '%s'",
-                        ex.getPropertyName(), ex.getValue(), Objects.requireNonNull(ex.getRequiredType()).getSimpleName()));
+                        ex.getPropertyName(), ex.getValue(), Objects.requireNonNull(ex.getRequiredType()).getSimpleName()))
+                .toResponseEntity();
     }
 
     /**
@@ -54,7 +70,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     protected ResponseEntity<Object> handleHttpMessageNotReadable(HttpMessageNotReadableException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        return generate(HttpStatus.BAD_REQUEST, "message", "Unformed JSON in request body");
+        return UNFORMED_JSON_RESPONSE;
     }
 
     /**
@@ -75,7 +91,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .map(DefaultMessageSourceResolvable::getDefaultMessage)
                 .collect(Collectors.toList());
 
-        return generate(HttpStatus.BAD_REQUEST, "errors", errors);
+        return ErrorResponse.errors(HttpStatus.BAD_REQUEST, errors).toResponseEntity();
     }
 
     /**
@@ -90,7 +106,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     @ResponseStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
     protected ResponseEntity<Object> handleHttpMediaTypeNotSupported(HttpMediaTypeNotSupportedException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        return generate(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "message", "Server supports only application/json");
+        return UNSUPPORTED_MEDIA_TYPE_RESPONSE;
     }
 
     /**
@@ -105,7 +121,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     protected ResponseEntity<Object> handleNoHandlerFoundException(NoHandlerFoundException ex, HttpHeaders headers, HttpStatus status, WebRequest request) {
-        return generate(HttpStatus.INTERNAL_SERVER_ERROR, "message", "Exception handler not found");
+        return HANDLER_NOT_FOUND_RESPONSE;
     }
 
     /**
@@ -123,23 +139,6 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .map(x -> x.getConstraintDescriptor().getMessageTemplate())
                 .collect(Collectors.toList());
 
-        return generate(HttpStatus.BAD_REQUEST, "errors", errors);
-    }
-
-    /**
-     * Генерирует сущность ответа сервера, , содержащую HTTP-статус и сообщение об ошибке
-     *
-     * @param status Тип: {@link HttpStatus}. Статус генерируемого ответа сервера
-     * @param fieldName Тип: {@link String}. Название поля с информацией об ошибке в теле ответа
-     * @param value Тип: {@link Object}. Значение поля с информацией об ошибке в теле ответа
-     * @return Возвращает сущность ответа сервера, содержащую HTTP-статус и сообщение об ошибке
-     */
-    private static ResponseEntity<Object> generate(HttpStatus status, String fieldName, Object value) {
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("timestamp", new Date());
-        body.put("status", status.value());
-        body.put(fieldName, value);
-
-        return ResponseEntity.status(status).body(body);
+        return ErrorResponse.errors(HttpStatus.BAD_REQUEST, errors).toResponseEntity();
     }
 }
@@ -0,0 +1,94 @@
+package com.bromles.test_task_region_directory.exception.handler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+import javax.validation.ConstraintViolationException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Глобальный обработчик исключений на уровне контроллеров реактивного веб-приложения
+ * <p>
+ * Формирует те же ответы об ошибках, что и {@link GlobalExceptionHandler} в сервлетном приложении. Ответы об ошибках
+ * с постоянным содержимым создаются один раз при загрузке класса.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    private static final ResponseEntity<Object> UNFORMED_JSON_RESPONSE =
+            ErrorResponse.message(HttpStatus.BAD_REQUEST, "Unformed JSON in request body").toResponseEntity();
+
+    private static final ResponseEntity<Object> UNSUPPORTED_MEDIA_TYPE_RESPONSE =
+            ErrorResponse.message(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Server supports only application/json")
+                    .toResponseEntity();
+
+    /**
+     * Обрабатывает исключение, генерируемое при провале валидации входных объектов трансфера данных
+     *
+     * @param ex Тип: {@link WebExchangeBindException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую статус 400 и сообщение об ошибке
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException ex) {
+        List<String> errors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.toList());
+
+        return ErrorResponse.errors(HttpStatus.BAD_REQUEST, errors).toResponseEntity();
+    }
+
+    /**
+     * Обрабатывает исключение, генерируемое при невозможности прочитать тело или конвертировать параметр запроса
+     *
+     * @param ex Тип: {@link ServerWebInputException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую статус 400 и сообщение об ошибке
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleServerWebInputException(ServerWebInputException ex) {
+        if (ex.getCause() instanceof DecodingException) {
+            return UNFORMED_JSON_RESPONSE;
+        }
+
+        return ErrorResponse.message(HttpStatus.BAD_REQUEST, ex.getReason()).toResponseEntity();
+    }
+
+    /**
+     * Обрабатывает исключение, генерируемое при получении запроса с неверным типом содержимого
+     *
+     * @param ex Тип: {@link UnsupportedMediaTypeStatusException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую статус 415 и сообщение об ошибке
+     */
+    @ExceptionHandler(UnsupportedMediaTypeStatusException.class)
+    public ResponseEntity<Object> handleUnsupportedMediaTypeStatusException(UnsupportedMediaTypeStatusException ex) {
+        return UNSUPPORTED_MEDIA_TYPE_RESPONSE;
+    }
+
+    /**
+     * Обрабатывает исключение, генерируемое при провале валидации входных параметров, не являющихся объектами
+     * трансфера данных
+     *
+     * @param ex Тип: {@link ConstraintViolationException}. Перехваченное исключение
+     * @return Возвращает сущность ответа сервера, содержащую статус 400 и сообщение об ошибке
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex) {
+        List<String> errors = ex.getConstraintViolations()
+                .stream()
+                .map(x -> x.getConstraintDescriptor().getMessageTemplate())
+                .collect(Collectors.toList());
+
+        return ErrorResponse.errors(HttpStatus.BAD_REQUEST, errors).toResponseEntity();
+    }
+}
@@ -0,0 +1,68 @@
+package com.bromles.test_task_region_directory.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Импорт регионов из файла при запуске приложения из командной строки
+ * <p>
+ * Включается параметром {@code --region-directory.import.file=<путь>}. После импорта приложение завершается с кодом
+ * 0, если все строки добавлены, и 1 в противном случае. Чтобы не запускать веб-сервер, вместе с ним указывается
+ * {@code --spring.main.web-application-type=none}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "region-directory.import", name = "file")
+public class RegionImportCommandLineRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RegionImportCommandLineRunner.class);
+
+    private final RegionImporter regionImporter;
+
+    private final RegionImportProperties properties;
+
+    private final ApplicationContext applicationContext;
+
+    RegionImportCommandLineRunner(RegionImporter regionImporter, RegionImportProperties properties,
+                                  ApplicationContext applicationContext) {
+        this.regionImporter = regionImporter;
+        this.properties = properties;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Paths.get(properties.getFile());
+        RegionImportFormat format = properties.getFormat() != null
+                ? properties.getFormat()
+                : RegionImportFormat.fromFileName(file.getFileName().toString());
+
+        log.info("Importing regions from {} as {}", file, format);
+
+        RegionImportReport report;
+
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            report = regionImporter.importRegions(inputStream, StandardCharsets.UTF_8, format);
+        }
+
+        for (RegionImportReport.RejectedRow rejectedRow : report.getRejectedRows()) {
+            log.warn("Rejected line {}: {}", rejectedRow.getLine(), String.join("; ", rejectedRow.getErrors()));
+        }
+
+        log.info("{}", report);
+
+        int exitCode = SpringApplication.exit(applicationContext, () -> report.getRejected() == 0 ? 0 : 1);
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bromles.test_task_region_directory.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Формат файла импорта регионов
+ */
+public enum RegionImportFormat {
+
+    /**
+     * Строки вида {@code id,name,short_name}, необязательно с заголовком. Значения, содержащие запятые, заключаются в
+     * двойные кавычки
+     */
+    CSV("text/csv", ".csv"),
+
+    /**
+     * Каждая строка является отдельным JSON-объектом региона
+     */
+    NDJSON("application/x-ndjson", ".ndjson", ".jsonl");
+
+    private final MediaType mediaType;
+
+    private final String[] fileExtensions;
+
+    RegionImportFormat(String mediaType, String... fileExtensions) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.fileExtensions = fileExtensions;
+    }
+
+    /**
+     * Получает тип содержимого, соответствующий формату
+     *
+     * @return Возвращает тип содержимого без параметров
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Определяет формат по типу содержимого запроса
+     *
+     * @param mediaType Тип: {@link MediaType}. Тип содержимого
+     * @return Возвращает формат, соответствующий типу содержимого
+     * @throws IllegalArgumentException Исключение, генерируемое, если тип содержимого не поддерживается
+     */
+    public static RegionImportFormat fromMediaType(MediaType mediaType) {
+        for (RegionImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported import media type: " + mediaType);
+    }
+
+    /**
+     * Определяет формат по расширению имени файла
+     *
+     * @param fileName Тип: {@link String}. Имя файла
+     * @return Возвращает формат, соответствующий расширению
+     * @throws IllegalArgumentException Исключение, генерируемое, если расширение не поддерживается
+     */
+    public static RegionImportFormat fromFileName(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+
+        for (RegionImportFormat format : values()) {
+            for (String extension : format.fileExtensions) {
+                if (lowerCaseName.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("Unable to determine import format of file: " + fileName);
+    }
+}
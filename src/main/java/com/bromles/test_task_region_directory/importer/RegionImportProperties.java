@@ -0,0 +1,114 @@
+package com.bromles.test_task_region_directory.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки импорта регионов
+ */
+@ConfigurationProperties(prefix = "region-directory.import")
+public class RegionImportProperties {
+
+    /**
+     * Количество регионов, добавляемых в справочник одним пакетом
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Максимальное количество отклоненных строк, подробно описываемых в отчете об импорте
+     */
+    private int maxReportedRejections = 100;
+
+    /**
+     * Путь к файлу, импортируемому при запуске приложения из командной строки
+     */
+    private String file;
+
+    /**
+     * Формат импортируемого файла. Если не задан, определяется по расширению файла
+     */
+    private RegionImportFormat format;
+
+    /**
+     * Получает размер пакета
+     *
+     * @return Возвращает количество регионов, добавляемых одним пакетом
+     * @see #setChunkSize(int)
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Сохраняет размер пакета
+     *
+     * @param chunkSize Тип: int. Количество регионов, добавляемых одним пакетом. Не может быть меньше 1
+     * @see #getChunkSize()
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Import chunk size must be positive");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Получает максимальное количество подробно описываемых отклоненных строк
+     *
+     * @return Возвращает максимальное количество отклоненных строк в отчете
+     * @see #setMaxReportedRejections(int)
+     */
+    public int getMaxReportedRejections() {
+        return maxReportedRejections;
+    }
+
+    /**
+     * Сохраняет максимальное количество подробно описываемых отклоненных строк
+     *
+     * @param maxReportedRejections Тип: int. Максимальное количество отклоненных строк в отчете
+     * @see #getMaxReportedRejections()
+     */
+    public void setMaxReportedRejections(int maxReportedRejections) {
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Получает путь к файлу, импортируемому при запуске
+     *
+     * @return Возвращает путь к файлу или {@code null}, если импорт при запуске не требуется
+     * @see #setFile(String)
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Сохраняет путь к файлу, импортируемому при запуске
+     *
+     * @param file Тип: {@link String}. Путь к файлу
+     * @see #getFile()
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Получает формат импортируемого при запуске файла
+     *
+     * @return Возвращает формат файла или {@code null}, если он определяется по расширению
+     * @see #setFormat(RegionImportFormat)
+     */
+    public RegionImportFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Сохраняет формат импортируемого при запуске файла
+     *
+     * @param format Тип: {@link RegionImportFormat}. Формат файла
+     * @see #getFormat()
+     */
+    public void setFormat(RegionImportFormat format) {
+        this.format = format;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bromles.test_task_region_directory.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Отчет об импорте регионов
+ * <p>
+ * Подробно описывает не более заданного количества отклоненных строк, чтобы отчет об импорте большого файла не
+ * занимал память пропорционально его размеру.
+ */
+public class RegionImportReport {
+
+    private final int maxReportedRejections;
+
+    private final List<RejectedRow> rejectedRows = new ArrayList<>();
+
+    private long rows;
+
+    private long imported;
+
+    private long rejected;
+
+    private long elapsedNanos;
+
+    RegionImportReport(int maxReportedRejections) {
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    void countRow() {
+        rows++;
+    }
+
+    void countImported(int count) {
+        imported += count;
+    }
+
+    void reject(long lineNumber, List<String> errors) {
+        rejected++;
+
+        if (rejectedRows.size() < maxReportedRejections) {
+            rejectedRows.add(new RejectedRow(lineNumber, errors));
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Получает количество прочитанных непустых строк
+     *
+     * @return Возвращает количество строк с регионами
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Получает количество добавленных регионов
+     *
+     * @return Возвращает количество добавленных регионов
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Получает количество отклоненных строк
+     *
+     * @return Возвращает количество строк, не прошедших разбор, валидацию или проверку уникальности
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Получает описания отклоненных строк
+     *
+     * @return Возвращает неизменяемый список описаний первых отклоненных строк
+     */
+    public List<RejectedRow> getRejectedRows() {
+        return Collections.unmodifiableList(rejectedRows);
+    }
+
+    /**
+     * Получает длительность импорта
+     *
+     * @return Возвращает длительность импорта в миллисекундах
+     */
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Получает пропускную способность импорта
+     *
+     * @return Возвращает количество обработанных строк в секунду
+     */
+    public long getRowsPerSecond() {
+        return elapsedNanos == 0 ? rows : rows * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Imported " + imported + " of " + rows + " rows, rejected " + rejected + ", in " + getElapsedMillis() +
+                " ms (" + getRowsPerSecond() + " rows/s)";
+    }
+
+    /**
+     * Описание отклоненной строки файла импорта
+     */
+    public static final class RejectedRow {
+
+        private final long line;
+
+        private final List<String> errors;
+
+        RejectedRow(long line, List<String> errors) {
+            this.line = line;
+            this.errors = errors;
+        }
+
+        /**
+         * @return Возвращает номер строки в файле, начиная с 1
+         */
+        public long getLine() {
+            return line;
+        }
+
+        /**
+         * @return Возвращает сообщения об ошибках строки
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bromles.test_task_region_directory.importer;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Сервис потокового импорта регионов из файлов CSV и NDJSON
+ * <p>
+ * Файл читается построчно, каждая строка проверяется по правилам валидации {@link RegionDTO}, а прошедшие проверку
+ * регионы добавляются в справочник пакетами настраиваемого размера. В памяти одновременно находится не более одного
+ * пакета.
+ */
+@Service
+@EnableConfigurationProperties(RegionImportProperties.class)
+public class RegionImporter {
+
+    private final IRegionDirectoryService regionDirectoryService;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final RegionImportProperties properties;
+
+    RegionImporter(IRegionDirectoryService regionDirectoryService, Validator validator, ObjectMapper objectMapper,
+                   RegionImportProperties properties) {
+        this.regionDirectoryService = regionDirectoryService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Импортирует регионы из потока
+     *
+     * @param inputStream Тип: {@link InputStream}. Поток с содержимым файла. Закрывается по окончании импорта
+     * @param charset     Тип: {@link Charset}. Кодировка файла
+     * @param format      Тип: {@link RegionImportFormat}. Формат файла
+     * @return Возвращает отчет с количеством добавленных и отклоненных строк и пропускной способностью импорта
+     * @throws IOException Исключение, генерируемое при ошибке чтения потока
+     */
+    public RegionImportReport importRegions(InputStream inputStream, Charset charset, RegionImportFormat format)
+            throws IOException {
+        long started = System.nanoTime();
+        int chunkSize = properties.getChunkSize();
+
+        RegionImportReport report = new RegionImportReport(properties.getMaxReportedRejections());
+        List<RegionDTO> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLineNumbers = new ArrayList<>(chunkSize);
+
+        try (RegionRowReader reader =
+                     new RegionRowReader(new InputStreamReader(inputStream, charset), format, objectMapper)) {
+            RegionRowReader.Row row;
+
+            while ((row = reader.next()) != null) {
+                report.countRow();
+
+                if (row.getError() != null) {
+                    report.reject(row.getLineNumber(), Collections.singletonList(row.getError()));
+                    continue;
+                }
+
+                List<String> errors = validate(row.getRegionDTO());
+
+                if (!errors.isEmpty()) {
+                    report.reject(row.getLineNumber(), errors);
+                    continue;
+                }
+
+                chunk.add(row.getRegionDTO());
+                chunkLineNumbers.add(row.getLineNumber());
+
+                if (chunk.size() == chunkSize) {
+                    addChunk(chunk, chunkLineNumbers, report);
+                }
+            }
+
+            addChunk(chunk, chunkLineNumbers, report);
+        }
+
+        report.finish(System.nanoTime() - started);
+
+        return report;
+    }
+
+    /**
+     * Проверяет регион по правилам валидации объекта трансфера данных
+     *
+     * @param regionDTO Тип: {@link RegionDTO}. Проверяемый объект трансфера данных
+     * @return Возвращает, возможно пустой, список сообщений об ошибках валидации
+     */
+    private List<String> validate(RegionDTO regionDTO) {
+        List<String> errors = new ArrayList<>();
+
+        for (ConstraintViolation<RegionDTO> violation : validator.validate(regionDTO)) {
+            errors.add(violation.getMessage());
+        }
+
+        if (regionDTO.shortName == null) {
+            errors.add("Region short name must be 3 capital Cyrillic letters");
+        }
+
+        Collections.sort(errors);
+
+        return errors;
+    }
+
+    /**
+     * Добавляет накопленный пакет регионов в справочник и очищает его
+     *
+     * @param chunk            Тип: {@link List List&lt;RegionDTO&gt;}. Пакет регионов
+     * @param chunkLineNumbers Тип: {@link List List&lt;Long&gt;}. Номера строк файла, из которых прочитаны регионы
+     * @param report           Тип: {@link RegionImportReport}. Отчет, в который записывается результат
+     */
+    private void addChunk(List<RegionDTO> chunk, List<Long> chunkLineNumbers, RegionImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<DuplicateUniqueValuesException> failures = regionDirectoryService.addAll(chunk);
+            int imported = 0;
+
+            for (int i = 0; i < failures.size(); i++) {
+                DuplicateUniqueValuesException failure = failures.get(i);
+
+                if (failure == null) {
+                    imported++;
+                }
+                else {
+                    report.reject(chunkLineNumbers.get(i), Collections.singletonList(
+                            failure.getMessage() + ": " + failure.getViolatedFields()));
+                }
+            }
+
+            report.countImported(imported);
+        }
+        catch (DuplicateUniqueValuesException ex) {
+            for (Long lineNumber : chunkLineNumbers) {
+                report.reject(lineNumber, Collections.singletonList(ex.getMessage()));
+            }
+        }
+
+        chunk.clear();
+        chunkLineNumbers.clear();
+    }
+}
@@ -0,0 +1,199 @@
+package com.bromles.test_task_region_directory.importer;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Построчный читатель регионов из файла импорта
+ * <p>
+ * Держит в памяти только текущую строку файла. Пустые строки и заголовок CSV пропускаются.
+ */
+final class RegionRowReader implements Closeable {
+
+    private static final String CSV_HEADER_FIRST_COLUMN = "id";
+
+    private static final int CSV_COLUMNS = 3;
+
+    private final BufferedReader reader;
+
+    private final RegionImportFormat format;
+
+    private final ObjectMapper objectMapper;
+
+    private long lineNumber;
+
+    RegionRowReader(Reader reader, RegionImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Читает следующую непустую строку файла
+     *
+     * @return Возвращает прочитанную строку или {@code null}, если файл закончился
+     * @throws IOException Исключение, генерируемое при ошибке чтения файла
+     */
+    Row next() throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (format == RegionImportFormat.NDJSON) {
+                return parseJson(line);
+            }
+
+            List<String> columns;
+
+            try {
+                columns = parseCsv(line);
+            }
+            catch (IllegalArgumentException ex) {
+                return Row.rejected(lineNumber, ex.getMessage());
+            }
+
+            if (lineNumber == 1 && columns.get(0).trim().equalsIgnoreCase(CSV_HEADER_FIRST_COLUMN)) {
+                continue;
+            }
+
+            if (columns.size() != CSV_COLUMNS) {
+                return Row.rejected(lineNumber, "Row must contain 3 columns: id, name and short name");
+            }
+
+            return Row.parsed(lineNumber,
+                    new RegionDTO(columns.get(0).trim(), columns.get(1).trim(), columns.get(2).trim()));
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row parseJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+
+            if (!node.isObject()) {
+                return Row.rejected(lineNumber, "Row must be a JSON object");
+            }
+
+            return Row.parsed(lineNumber, objectMapper.treeToValue(node, RegionDTO.class));
+        }
+        catch (JsonProcessingException ex) {
+            return Row.rejected(lineNumber, "Unformed JSON in row");
+        }
+    }
+
+    /**
+     * Разбирает строку CSV на значения. Значения в двойных кавычках могут содержать запятые и удвоенные кавычки
+     *
+     * @param line Тип: {@link String}. Строка файла
+     * @return Возвращает список значений строки
+     * @throws IllegalArgumentException Исключение, генерируемое при незакрытой кавычке
+     */
+    static List<String> parseCsv(String line) {
+        List<String> columns = new ArrayList<>(CSV_COLUMNS);
+        StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c != '"') {
+                    column.append(c);
+                }
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    column.append('"');
+                    i++;
+                }
+                else {
+                    quoted = false;
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                columns.add(column.toString());
+                column.setLength(0);
+            }
+            else {
+                column.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Row contains unclosed quote");
+        }
+
+        columns.add(column.toString());
+
+        return columns;
+    }
+
+    /**
+     * Прочитанная строка файла импорта
+     */
+    static final class Row {
+
+        private final long lineNumber;
+
+        private final RegionDTO regionDTO;
+
+        private final String error;
+
+        private Row(long lineNumber, RegionDTO regionDTO, String error) {
+            this.lineNumber = lineNumber;
+            this.regionDTO = regionDTO;
+            this.error = error;
+        }
+
+        static Row parsed(long lineNumber, RegionDTO regionDTO) {
+            return new Row(lineNumber, regionDTO, null);
+        }
+
+        static Row rejected(long lineNumber, String error) {
+            return new Row(lineNumber, null, error);
+        }
+
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return Возвращает объект трансфера данных или {@code null}, если строку не удалось разобрать
+         */
+        RegionDTO getRegionDTO() {
+            return regionDTO;
+        }
+
+        /**
+         * @return Возвращает описание ошибки разбора или {@code null}, если строка разобрана
+         */
+        String getError() {
+            return error;
+        }
+    }
+}
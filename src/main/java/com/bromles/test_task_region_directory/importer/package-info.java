@@ -0,0 +1,4 @@
+/**
+ * Содержит потоковый импорт регионов из файлов CSV и NDJSON
+ */
+package com.bromles.test_task_region_directory.importer;
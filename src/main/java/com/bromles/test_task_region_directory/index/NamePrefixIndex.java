@@ -0,0 +1,76 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Индекс поиска регионов по началу наименования
+ * <p>
+ * Хранит наименования в отсортированном массиве, поэтому все регионы с общим началом наименования занимают в нем
+ * непрерывный диапазон, граница которого находится двоичным поиском.
+ */
+public final class NamePrefixIndex {
+
+    private final String[] names;
+
+    private final RegionDTO[] regionDTOs;
+
+    /**
+     * Конструктор индекса по списку регионов
+     *
+     * @param sortedRegionDTOs Тип: {@link List List&lt;RegionDTO&gt;}. Объекты трансфера данных, отсортированные по
+     *                         наименованию
+     */
+    public NamePrefixIndex(List<RegionDTO> sortedRegionDTOs) {
+        this.regionDTOs = sortedRegionDTOs.toArray(new RegionDTO[0]);
+        this.names = new String[regionDTOs.length];
+
+        for (int i = 0; i < regionDTOs.length; i++) {
+            names[i] = regionDTOs[i].name;
+        }
+    }
+
+    /**
+     * Находит регионы, наименование которых начинается с данной строки
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона
+     * @return Возвращает неизменяемый, возможно пустой, список регионов, отсортированный по наименованию
+     */
+    public List<RegionDTO> find(String nameBeginning) {
+        int from = lowerBound(nameBeginning);
+        List<RegionDTO> found = new ArrayList<>();
+
+        for (int i = from; i < names.length && names[i].startsWith(nameBeginning); i++) {
+            found.add(regionDTOs[i]);
+        }
+
+        return found.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Находит позицию первого наименования, не меньшего данной строки
+     *
+     * @param key Тип: {@link String}. Искомая строка
+     * @return Возвращает индекс первого элемента массива наименований, не меньшего данной строки
+     */
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = names.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (names[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+}
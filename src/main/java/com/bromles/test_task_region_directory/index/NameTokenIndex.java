@@ -0,0 +1,312 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+
+/**
+ * Инвертированный индекс слов наименований регионов
+ * <p>
+ * Наименование приводится к ключу поиска {@link RegionNameNormalizer} и разбивается на неповторяющиеся слова. Каждому
+ * региону присваивается порядковый номер документа, а для каждого слова хранится возрастающий список номеров
+ * документов, сжатый разностным кодированием с переменной длиной: разность соседних номеров записывается по 7 бит в байте.
+ * Запрос из нескольких слов выполняется пересечением списков, начиная с самого короткого.
+ * <p>
+ * Индекс неизменяем. Новый регион получает следующий номер документа, поэтому его номер дописывается в конец
+ * списков. При удалении региона перекодируются только списки его слов, а номер документа освобождается. Если
+ * освобожденных номеров становится больше, чем занятых, индекс строится заново.
+ */
+public final class NameTokenIndex {
+
+    private static final byte[] EMPTY_POSTINGS = new byte[0];
+
+    /**
+     * Сжатые списки номеров документов по слову
+     */
+    private final Map<String, byte[]> postings;
+
+    /**
+     * Идентификаторы регионов по номеру документа. Освобожденные номера содержат {@code null}
+     */
+    private final String[] ids;
+
+    /**
+     * Слова наименований регионов по идентификатору
+     */
+    private final Map<String, String[]> tokensById;
+
+    /**
+     * Конструктор индекса по списку регионов
+     *
+     * @param regionDTOs Тип: {@link Collection Collection&lt;RegionDTO&gt;}. Объекты трансфера данных с уникальными
+     *                   идентификаторами
+     */
+    public NameTokenIndex(Collection<RegionDTO> regionDTOs) {
+        Map<String, PostingsWriter> writers = new HashMap<>();
+
+        this.ids = new String[regionDTOs.size()];
+        this.tokensById = new HashMap<>();
+
+        int document = 0;
+
+        for (RegionDTO regionDTO : regionDTOs) {
+            String[] tokens = tokens(regionDTO.name);
+
+            ids[document] = regionDTO.id;
+            tokensById.put(regionDTO.id, tokens);
+
+            for (String token : tokens) {
+                writers.computeIfAbsent(token, x -> new PostingsWriter()).add(document);
+            }
+
+            document++;
+        }
+
+        this.postings = new HashMap<>();
+
+        for (Map.Entry<String, PostingsWriter> entry : writers.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toByteArray());
+        }
+    }
+
+    private NameTokenIndex(Map<String, byte[]> postings, String[] ids, Map<String, String[]> tokensById) {
+        this.postings = postings;
+        this.ids = ids;
+        this.tokensById = tokensById;
+    }
+
+    /**
+     * Создает новый индекс с добавленным регионом
+     *
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных с идентификатором, отсутствующим в индексе
+     * @return Возвращает новый индекс, содержащий все регионы текущего индекса и переданный регион
+     */
+    public NameTokenIndex withAdded(RegionDTO regionDTO) {
+        int document = ids.length;
+        String[] tokens = tokens(regionDTO.name);
+        Map<String, byte[]> changedPostings = new HashMap<>(postings);
+        Map<String, String[]> changedTokens = new HashMap<>(tokensById);
+        String[] changedIds = Arrays.copyOf(ids, document + 1);
+
+        changedIds[document] = regionDTO.id;
+        changedTokens.put(regionDTO.id, tokens);
+
+        for (String token : tokens) {
+            int[] documents = decode(changedPostings.getOrDefault(token, EMPTY_POSTINGS));
+            int[] changed = Arrays.copyOf(documents, documents.length + 1);
+
+            changed[documents.length] = document;
+            changedPostings.put(token, encode(changed));
+        }
+
+        return new NameTokenIndex(changedPostings, changedIds, changedTokens);
+    }
+
+    /**
+     * Создает новый индекс без региона
+     *
+     * @param id Тип: {@link String}. Идентификатор удаляемого региона
+     * @return Возвращает новый индекс, не содержащий регион с данным идентификатором, или текущий индекс, если
+     * региона в нем нет
+     */
+    public NameTokenIndex withRemoved(String id) {
+        String[] tokens = tokensById.get(id);
+
+        if (tokens == null) {
+            return this;
+        }
+
+        if (tokensById.size() - 1 < ids.length / 2) {
+            return rebuiltWithout(id);
+        }
+
+        int document = Arrays.asList(ids).indexOf(id);
+        Map<String, byte[]> changedPostings = new HashMap<>(postings);
+        Map<String, String[]> changedTokens = new HashMap<>(tokensById);
+        String[] changedIds = ids.clone();
+
+        changedIds[document] = null;
+        changedTokens.remove(id);
+
+        for (String token : tokens) {
+            int[] changed = Arrays.stream(decode(changedPostings.get(token))).filter(x -> x != document).toArray();
+
+            if (changed.length == 0) {
+                changedPostings.remove(token);
+            }
+            else {
+                changedPostings.put(token, encode(changed));
+            }
+        }
+
+        return new NameTokenIndex(changedPostings, changedIds, changedTokens);
+    }
+
+    /**
+     * Находит регионы, наименование которых содержит все слова запроса
+     *
+     * @param query Тип: {@link String}. Слова запроса. Регистр, буква ё и разделители не учитываются
+     * @return Возвращает, возможно пустой, список идентификаторов найденных регионов
+     */
+    public List<String> find(String query) {
+        String[] tokens = tokens(query);
+
+        if (tokens.length == 0) {
+            return Collections.emptyList();
+        }
+
+        byte[][] lists = new byte[tokens.length][];
+
+        for (int i = 0; i < tokens.length; i++) {
+            lists[i] = postings.get(tokens[i]);
+
+            if (lists[i] == null) {
+                return Collections.emptyList();
+            }
+        }
+
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+
+        int[] documents = decode(lists[0]);
+        int count = documents.length;
+
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = intersect(documents, count, lists[i]);
+        }
+
+        List<String> found = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            found.add(ids[documents[i]]);
+        }
+
+        return found;
+    }
+
+    /**
+     * Оставляет в начале массива номера документов, присутствующие в сжатом списке. Список декодируется по мере
+     * продвижения без создания массива
+     *
+     * @param documents Тип: int[]. Возрастающие номера документов, изменяемые на месте
+     * @param count     Тип: int. Количество номеров в начале массива
+     * @param list      Тип: byte[]. Сжатый список номеров документов
+     * @return Возвращает количество номеров, оставшихся в начале массива
+     */
+    private static int intersect(int[] documents, int count, byte[] list) {
+        int kept = 0;
+        int position = 0;
+        int current = -1;
+        int previous = 0;
+
+        for (int i = 0; i < count; i++) {
+            while (current < documents[i] && position < list.length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+
+                do {
+                    b = list[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                }
+                while (b < 0);
+
+                current = previous + delta;
+                previous = current;
+            }
+
+            if (current == documents[i]) {
+                documents[kept++] = documents[i];
+            }
+            else if (current < documents[i]) {
+                break;
+            }
+        }
+
+        return kept;
+    }
+
+    private static String[] tokens(String name) {
+        String normalized = RegionNameNormalizer.normalize(name);
+
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+
+        return new LinkedHashSet<>(Arrays.asList(normalized.split(" "))).toArray(new String[0]);
+    }
+
+    private static byte[] encode(int[] documents) {
+        PostingsWriter writer = new PostingsWriter();
+
+        for (int document : documents) {
+            writer.add(document);
+        }
+
+        return writer.toByteArray();
+    }
+
+    private static int[] decode(byte[] list) {
+        int[] documents = new int[list.length];
+        int count = 0;
+        int previous = 0;
+        int position = 0;
+
+        while (position < list.length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+
+            do {
+                b = list[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+
+            previous += delta;
+            documents[count++] = previous;
+        }
+
+        return Arrays.copyOf(documents, count);
+    }
+
+    private NameTokenIndex rebuiltWithout(String id) {
+        List<RegionDTO> remaining = new ArrayList<>(tokensById.size() - 1);
+
+        for (String current : ids) {
+            if (current != null && !current.equals(id)) {
+                remaining.add(new RegionDTO(current, String.join(" ", tokensById.get(current)), null));
+            }
+        }
+
+        return new NameTokenIndex(remaining);
+    }
+
+    /**
+     * Запись возрастающего списка номеров документов в сжатом виде
+     */
+    private static final class PostingsWriter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private int previous;
+
+        private void add(int document) {
+            int delta = document - previous;
+
+            while ((delta & ~0x7F) != 0) {
+                bytes.write((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+
+            bytes.write(delta);
+            previous = document;
+        }
+
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
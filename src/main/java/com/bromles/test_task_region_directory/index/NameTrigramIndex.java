@@ -0,0 +1,302 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.*;
+
+/**
+ * Индекс нечеткого поиска регионов по наименованию на основе триграмм
+ * <p>
+ * Наименования приводятся к ключу поиска {@link RegionNameNormalizer}. Для каждой триграммы приведенного
+ * наименования хранится список идентификаторов регионов. Кандидаты отбираются по количеству общих с запросом
+ * триграмм: строка на расстоянии редактирования {@code k} от запроса содержит не менее {@code n - 3k} из {@code n}
+ * его различных триграмм. Для кандидатов вычисляется расстояние редактирования до ближайшей части наименования,
+ * начинающейся с начала одного из его слов, поэтому запрос может пропускать первые слова наименования ("Москва" для
+ * "город Москва"), а сокращенные слова в конце запроса не увеличивают расстояние. Начальные триграммы дополняются
+ * символом {@code $} перед каждым словом.
+ * <p>
+ * Индекс неизменяем. Добавление и удаление региона создают новый индекс, в котором заменены только списки
+ * затронутых триграмм.
+ */
+public final class NameTrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final String PADDING = "$$";
+
+    private final Map<String, String[]> postings;
+
+    /**
+     * Приведенные наименования регионов по идентификатору
+     */
+    private final Map<String, String> foldedNames;
+
+    /**
+     * Конструктор индекса по списку регионов
+     *
+     * @param regionDTOs Тип: {@link Collection Collection&lt;RegionDTO&gt;}. Объекты трансфера данных с уникальными
+     *                   идентификаторами
+     */
+    public NameTrigramIndex(Collection<RegionDTO> regionDTOs) {
+        Map<String, List<String>> ids = new HashMap<>();
+
+        this.foldedNames = new HashMap<>();
+
+        for (RegionDTO regionDTO : regionDTOs) {
+            String folded = RegionNameNormalizer.normalize(regionDTO.name);
+
+            foldedNames.put(regionDTO.id, folded);
+
+            for (String gram : grams(folded)) {
+                ids.computeIfAbsent(gram, x -> new ArrayList<>()).add(regionDTO.id);
+            }
+        }
+
+        this.postings = new HashMap<>();
+
+        for (Map.Entry<String, List<String>> entry : ids.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray(new String[0]));
+        }
+    }
+
+    private NameTrigramIndex(Map<String, String[]> postings, Map<String, String> foldedNames) {
+        this.postings = postings;
+        this.foldedNames = foldedNames;
+    }
+
+    /**
+     * Создает новый индекс с добавленным регионом
+     *
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных с идентификатором, отсутствующим в индексе
+     * @return Возвращает новый индекс, содержащий все регионы текущего индекса и переданный регион
+     */
+    public NameTrigramIndex withAdded(RegionDTO regionDTO) {
+        String folded = RegionNameNormalizer.normalize(regionDTO.name);
+        Map<String, String[]> changedPostings = new HashMap<>(postings);
+        Map<String, String> changedNames = new HashMap<>(foldedNames);
+
+        changedNames.put(regionDTO.id, folded);
+
+        for (String gram : grams(folded)) {
+            String[] current = changedPostings.getOrDefault(gram, new String[0]);
+            String[] changed = Arrays.copyOf(current, current.length + 1);
+
+            changed[current.length] = regionDTO.id;
+            changedPostings.put(gram, changed);
+        }
+
+        return new NameTrigramIndex(changedPostings, changedNames);
+    }
+
+    /**
+     * Создает новый индекс без региона
+     *
+     * @param id Тип: {@link String}. Идентификатор удаляемого региона
+     * @return Возвращает новый индекс, не содержащий регион с данным идентификатором, или текущий индекс, если
+     * региона в нем нет
+     */
+    public NameTrigramIndex withRemoved(String id) {
+        String folded = foldedNames.get(id);
+
+        if (folded == null) {
+            return this;
+        }
+
+        Map<String, String[]> changedPostings = new HashMap<>(postings);
+        Map<String, String> changedNames = new HashMap<>(foldedNames);
+
+        changedNames.remove(id);
+
+        for (String gram : grams(folded)) {
+            String[] current = changedPostings.get(gram);
+            String[] changed = Arrays.stream(current).filter(x -> !x.equals(id)).toArray(String[]::new);
+
+            if (changed.length == 0) {
+                changedPostings.remove(gram);
+            }
+            else {
+                changedPostings.put(gram, changed);
+            }
+        }
+
+        return new NameTrigramIndex(changedPostings, changedNames);
+    }
+
+    /**
+     * Находит регионы, часть наименования которых, начинающаяся с начала слова, отличается от запроса не более чем на
+     * данное расстояние редактирования. Расстояние ограничивается также четвертью длины приведенного запроса, чтобы
+     * короткие запросы не совпадали с любым наименованием
+     *
+     * @param name        Тип: {@link String}. Наименование или начало наименования региона, возможно с опечатками
+     * @param maxDistance Тип: int. Максимальное расстояние редактирования
+     * @param limit       Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает, возможно пустой, список идентификаторов не более чем {@code limit} регионов в порядке
+     * возрастания расстояния, а при равном расстоянии - приведенного наименования
+     */
+    public List<String> find(String name, int maxDistance, int limit) {
+        String query = RegionNameNormalizer.normalize(name);
+
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int allowed = Math.min(maxDistance, query.length() / 4);
+        Set<String> queryGrams = new HashSet<>();
+
+        addGrams(queryGrams, PADDING + query);
+
+        int threshold = queryGrams.size() - GRAM_LENGTH * allowed;
+        Collection<String> candidates;
+
+        if (threshold > 0) {
+            Map<String, Integer> shared = new HashMap<>();
+
+            for (String gram : queryGrams) {
+                for (String id : postings.getOrDefault(gram, new String[0])) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+
+            candidates = new ArrayList<>();
+
+            for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+                if (entry.getValue() >= threshold) {
+                    candidates.add(entry.getKey());
+                }
+            }
+        }
+        else {
+            candidates = foldedNames.keySet();
+        }
+
+        List<Match> matches = new ArrayList<>();
+
+        for (String id : candidates) {
+            String folded = foldedNames.get(id);
+            int distance = wordPrefixDistance(query, folded, allowed);
+
+            if (distance <= allowed) {
+                matches.add(new Match(id, folded, distance));
+            }
+        }
+
+        matches.sort(Match.ORDER);
+
+        List<String> found = new ArrayList<>(Math.min(limit, matches.size()));
+
+        for (int i = 0; i < matches.size() && found.size() < limit; i++) {
+            found.add(matches.get(i).id);
+        }
+
+        return found;
+    }
+
+    /**
+     * Получает триграммы приведенного наименования, включая дополненные начальные триграммы каждого слова
+     *
+     * @param folded Тип: {@link String}. Приведенное наименование
+     * @return Возвращает множество различных триграмм
+     */
+    private static Set<String> grams(String folded) {
+        Set<String> grams = new HashSet<>();
+
+        addGrams(grams, PADDING + folded);
+
+        for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+            addGrams(grams, PADDING + folded.substring(i + 1, Math.min(folded.length(), i + GRAM_LENGTH)));
+        }
+
+        return grams;
+    }
+
+    private static void addGrams(Set<String> grams, String padded) {
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    /**
+     * Вычисляет наименьшее расстояние от запроса до начала части наименования, начинающейся с начала слова
+     *
+     * @param query Тип: {@link String}. Приведенный запрос
+     * @param text  Тип: {@link String}. Приведенное наименование
+     * @param bound Тип: int. Расстояние, после превышения которого вычисление прекращается
+     * @return Возвращает расстояние или {@code bound + 1}, если оно превышает {@code bound}
+     */
+    private static int wordPrefixDistance(String query, String text, int bound) {
+        int distance = prefixDistance(query, text, bound);
+
+        for (int i = text.indexOf(' '); i >= 0 && distance > 0; i = text.indexOf(' ', i + 1)) {
+            distance = Math.min(distance, prefixDistance(query, text.substring(i + 1), bound));
+        }
+
+        return distance;
+    }
+
+    /**
+     * Вычисляет расстояние Левенштейна от запроса до ближайшего начала строки
+     *
+     * @param query Тип: {@link String}. Приведенный запрос
+     * @param text  Тип: {@link String}. Приведенное наименование
+     * @param bound Тип: int. Расстояние, после превышения которого вычисление прекращается
+     * @return Возвращает расстояние или {@code bound + 1}, если оно превышает {@code bound}
+     */
+    private static int prefixDistance(String query, String text, int bound) {
+        int[] previous = new int[text.length() + 1];
+        int[] current = new int[text.length() + 1];
+
+        for (int j = 0; j <= text.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+
+            for (int j = 1; j <= text.length(); j++) {
+                int substitution = previous[j - 1] + (query.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1);
+
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int distance = bound + 1;
+
+        for (int value : previous) {
+            distance = Math.min(distance, value);
+        }
+
+        return distance;
+    }
+
+    /**
+     * Регион, прошедший проверку расстояния редактирования
+     */
+    private static final class Match {
+
+        private static final Comparator<Match> ORDER = Comparator.<Match>comparingInt(match -> match.distance)
+                .thenComparing(match -> match.foldedName)
+                .thenComparing(match -> match.id);
+
+        private final String id;
+
+        private final String foldedName;
+
+        private final int distance;
+
+        private Match(String id, String foldedName, int distance) {
+            this.id = id;
+            this.foldedName = foldedName;
+            this.distance = distance;
+        }
+    }
+}
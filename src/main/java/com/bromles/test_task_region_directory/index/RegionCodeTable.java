@@ -0,0 +1,87 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Таблица прямой адресации регионов по коду
+ * <p>
+ * Идентификатор региона состоит из 2 или 3 цифр, поэтому все возможные коды помещаются в массив из 1100 ячеек:
+ * двузначный код {@code NN} занимает ячейку {@code NN}, трехзначный {@code NNN} - ячейку {@code 100 + NNN}. Поиск
+ * разбирает цифры кода без вычисления хэша и создания объектов. Регионы с идентификаторами другого вида хранятся в
+ * отдельной хэш-таблице.
+ */
+public final class RegionCodeTable {
+
+    /**
+     * Количество ячеек таблицы: 100 двузначных и 1000 трехзначных кодов
+     */
+    public static final int SIZE = 1100;
+
+    private final RegionDTO[] slots = new RegionDTO[SIZE];
+
+    private final Map<String, RegionDTO> otherIds = new HashMap<>();
+
+    /**
+     * Конструктор таблицы по списку регионов
+     *
+     * @param regionDTOs Тип: {@link Collection Collection&lt;RegionDTO&gt;}. Объекты трансфера данных с уникальными
+     *                   идентификаторами
+     */
+    public RegionCodeTable(Collection<RegionDTO> regionDTOs) {
+        for (RegionDTO regionDTO : regionDTOs) {
+            int slot = slotOf(regionDTO.id);
+
+            if (slot >= 0) {
+                slots[slot] = regionDTO;
+            }
+            else {
+                otherIds.put(regionDTO.id, regionDTO);
+            }
+        }
+    }
+
+    /**
+     * Вычисляет ячейку таблицы для идентификатора
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает номер ячейки от 0 до {@link #SIZE} - 1 или -1, если идентификатор не состоит из 2 или 3
+     * цифр
+     */
+    public static int slotOf(String id) {
+        int length = id.length();
+
+        if (length < 2 || length > 3) {
+            return -1;
+        }
+
+        int code = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = id.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            code = code * 10 + digit;
+        }
+
+        return length == 2 ? code : 100 + code;
+    }
+
+    /**
+     * Получает регион по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает объект трансфера данных или {@code null}, если регион отсутствует
+     */
+    public RegionDTO get(String id) {
+        int slot = slotOf(id);
+
+        return slot >= 0 ? slots[slot] : otherIds.get(id);
+    }
+}
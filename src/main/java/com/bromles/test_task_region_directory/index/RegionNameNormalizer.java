@@ -0,0 +1,49 @@
+package com.bromles.test_task_region_directory.index;
+
+/**
+ * Приведение наименований регионов к ключу поиска
+ * <p>
+ * Ключ не зависит от регистра, буквы ё и написания разделителей: все символы, кроме букв и цифр, в том числе дефисы,
+ * тире и скобки, заменяются одним пробелом. Вычисляемые столбцы {@code normalized_name} и
+ * {@code normalized_short_name} таблицы регионов вычисляются тем же выражением на SQL, поэтому поиск по ключу дает
+ * одинаковый результат в снимке и в репозитории.
+ */
+public final class RegionNameNormalizer {
+
+    private RegionNameNormalizer() {
+    }
+
+    /**
+     * Приводит наименование к ключу поиска
+     *
+     * @param name Тип: {@link String}. Наименование или сокращенное наименование региона
+     * @return Возвращает наименование в нижнем регистре, с буквой е вместо ё и одиночными пробелами между
+     * последовательностями букв и цифр
+     */
+    public static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        boolean separator = false;
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+
+            if (c == 'ё') {
+                c = 'е';
+            }
+
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+
+                normalized.append(c);
+                separator = false;
+            }
+            else {
+                separator = true;
+            }
+        }
+
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,404 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Неизменяемый снимок справочника регионов с индексами для чтения без обращения к репозиторию
+ * <p>
+ * Любое изменение справочника порождает новый снимок, поэтому однажды полученный экземпляр можно читать из
+ * нескольких потоков без блокировок.
+ */
+public final class RegionSnapshot {
+
+    /**
+     * Порядок регионов в снимке, совпадающий с сортировкой запросов репозитория
+     */
+    private static final Comparator<Region> REGION_ORDER = Comparator.comparing(Region::getName)
+            .thenComparing(Region::getKey, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final RegionSnapshot EMPTY = new RegionSnapshot(Collections.emptyList(), null, null);
+
+    /**
+     * Регионы, отсортированные по наименованию
+     */
+    private final List<Region> regions;
+
+    /**
+     * Объекты трансфера данных в порядке сортировки регионов
+     */
+    private final List<RegionDTO> regionDTOs;
+
+    private final RegionCodeTable regionDTOsById;
+
+    /**
+     * Регионы по ключу поиска наименования {@link RegionNameNormalizer}
+     */
+    private final Map<String, List<RegionDTO>> regionDTOsByName;
+
+    /**
+     * Регионы по ключу поиска сокращенного наименования {@link RegionNameNormalizer}
+     */
+    private final Map<String, List<RegionDTO>> regionDTOsByShortName;
+
+    /**
+     * Регионы с общим ключом поиска сокращенного наименования в порядке сортировки снимка, используемые для
+     * постраничной выдачи
+     */
+    private final Map<String, List<Region>> regionsByShortName;
+
+    private final NamePrefixIndex namePrefixIndex;
+
+    private final NameTrigramIndex nameTrigramIndex;
+
+    private final NameTokenIndex nameTokenIndex;
+
+    /**
+     * Конструктор снимка по списку регионов, уже отсортированному в порядке {@link #REGION_ORDER}
+     *
+     * @param sortedRegions    Тип: {@link List List&lt;Region&gt;}. Отсортированный список регионов, принадлежащий
+     *                         снимку
+     * @param nameTrigramIndex Тип: {@link NameTrigramIndex}. Триграммный индекс тех же регионов, измененный
+     *                         вместе со снимком, или {@code null}, если индекс строится заново
+     * @param nameTokenIndex   Тип: {@link NameTokenIndex}. Индекс слов наименований тех же регионов, измененный
+     *                         вместе со снимком, или {@code null}, если индекс строится заново
+     */
+    private RegionSnapshot(List<Region> sortedRegions, NameTrigramIndex nameTrigramIndex,
+                           NameTokenIndex nameTokenIndex) {
+        List<RegionDTO> dtos = new ArrayList<>(sortedRegions.size());
+        Map<String, List<RegionDTO>> byName = new HashMap<>();
+        Map<String, List<RegionDTO>> byShortName = new HashMap<>();
+        Map<String, List<Region>> regionsByShortName = new HashMap<>();
+
+        for (Region region : sortedRegions) {
+            RegionDTO regionDTO = region.toDTO();
+
+            dtos.add(regionDTO);
+            String normalizedShortName = RegionNameNormalizer.normalize(regionDTO.shortName);
+
+            byName.computeIfAbsent(RegionNameNormalizer.normalize(regionDTO.name), x -> new ArrayList<>())
+                    .add(regionDTO);
+            byShortName.computeIfAbsent(normalizedShortName, x -> new ArrayList<>()).add(regionDTO);
+            regionsByShortName.computeIfAbsent(normalizedShortName, x -> new ArrayList<>()).add(region);
+        }
+
+        this.regions = Collections.unmodifiableList(sortedRegions);
+        this.regionDTOs = Collections.unmodifiableList(dtos);
+        this.regionDTOsById = new RegionCodeTable(dtos);
+        this.regionDTOsByName = freeze(byName);
+        this.regionDTOsByShortName = freeze(byShortName);
+        this.regionsByShortName = regionsByShortName;
+        this.namePrefixIndex = new NamePrefixIndex(dtos);
+        this.nameTrigramIndex = nameTrigramIndex != null ? nameTrigramIndex : new NameTrigramIndex(dtos);
+        this.nameTokenIndex = nameTokenIndex != null ? nameTokenIndex : new NameTokenIndex(dtos);
+    }
+
+    /**
+     * Получает пустой снимок
+     *
+     * @return Возвращает снимок, не содержащий регионов
+     */
+    public static RegionSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Создает снимок по списку регионов
+     *
+     * @param regions Тип: {@link Collection Collection&lt;Region&gt;}. Регионы, из которых строится снимок
+     * @return Возвращает снимок, содержащий копии переданных регионов
+     */
+    public static RegionSnapshot of(Collection<Region> regions) {
+        List<Region> copies = new ArrayList<>(regions.size());
+
+        for (Region region : regions) {
+            copies.add(copyOf(region));
+        }
+
+        copies.sort(REGION_ORDER);
+
+        return new RegionSnapshot(copies, null, null);
+    }
+
+    /**
+     * Создает новый снимок с добавленным регионом
+     *
+     * @param region Тип: {@link Region}. Сохраненный в репозитории регион
+     * @return Возвращает новый снимок, содержащий все регионы текущего снимка и переданный регион
+     */
+    public RegionSnapshot withSaved(Region region) {
+        List<Region> changed = new ArrayList<>(regions.size() + 1);
+
+        changed.addAll(regions);
+        changed.add(copyOf(region));
+        changed.sort(REGION_ORDER);
+
+        RegionDTO added = region.toDTO();
+
+        return new RegionSnapshot(changed, nameTrigramIndex.withAdded(added), nameTokenIndex.withAdded(added));
+    }
+
+    /**
+     * Создает новый снимок с обновленным регионом
+     *
+     * @param id     Тип: {@link String}. Идентификатор обновленного региона до обновления
+     * @param region Тип: {@link Region}. Новые данные региона. Первичный ключ сохраняется из текущего снимка
+     * @return Возвращает новый снимок, в котором регион с данным идентификатором заменен
+     */
+    public RegionSnapshot withUpdated(String id, Region region) {
+        List<Region> changed = new ArrayList<>(regions.size());
+        NameTrigramIndex changedTrigramIndex = nameTrigramIndex;
+        NameTokenIndex changedTokenIndex = nameTokenIndex;
+
+        for (Region current : regions) {
+            if (current.getId().equals(id)) {
+                changed.add(new Region(current.getKey(), region.getId(), region.getName(), region.getShortName()));
+                changedTrigramIndex = changedTrigramIndex.withRemoved(id).withAdded(region.toDTO());
+                changedTokenIndex = changedTokenIndex.withRemoved(id).withAdded(region.toDTO());
+            }
+            else {
+                changed.add(current);
+            }
+        }
+
+        changed.sort(REGION_ORDER);
+
+        return new RegionSnapshot(changed, changedTrigramIndex, changedTokenIndex);
+    }
+
+    /**
+     * Создает новый снимок без удаленного региона
+     *
+     * @param id Тип: {@link String}. Идентификатор удаленного региона
+     * @return Возвращает новый снимок, не содержащий регион с данным идентификатором
+     */
+    public RegionSnapshot withDeleted(String id) {
+        List<Region> changed = new ArrayList<>(regions.size());
+
+        for (Region current : regions) {
+            if (!current.getId().equals(id)) {
+                changed.add(current);
+            }
+        }
+
+        return new RegionSnapshot(changed, nameTrigramIndex.withRemoved(id), nameTokenIndex.withRemoved(id));
+    }
+
+    /**
+     * Получает список всех регионов снимка
+     *
+     * @return Возвращает неизменяемый список объектов трансфера данных, отсортированный по наименованию
+     */
+    public List<RegionDTO> getAll() {
+        return regionDTOs;
+    }
+
+    /**
+     * Получает регион по идентификатору из таблицы прямой адресации без вычисления хэша и создания объектов
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает объект трансфера данных или {@code null}, если регион отсутствует
+     */
+    public RegionDTO getById(String id) {
+        return regionDTOsById.get(id);
+    }
+
+    /**
+     * Получает список регионов по наименованию без учета регистра, буквы ё и разделителей
+     *
+     * @param name Тип: {@link String}. Наименование региона
+     * @return Возвращает неизменяемый, возможно пустой, список объектов трансфера данных
+     */
+    public List<RegionDTO> getByName(String name) {
+        return regionDTOsByName.getOrDefault(RegionNameNormalizer.normalize(name), Collections.emptyList());
+    }
+
+    /**
+     * Получает список регионов по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона
+     * @return Возвращает неизменяемый, возможно пустой, список объектов трансфера данных, отсортированный по
+     * наименованию
+     */
+    public List<RegionDTO> getByNameBeginning(String nameBeginning) {
+        return namePrefixIndex.find(nameBeginning);
+    }
+
+    /**
+     * Получает регионы, начало наименования которых отличается от данной строки не более чем на данное расстояние
+     * редактирования без учета регистра, буквы ё и разделителей
+     *
+     * @param name        Тип: {@link String}. Наименование или начало наименования региона, возможно с опечатками
+     * @param maxDistance Тип: int. Максимальное расстояние редактирования
+     * @param limit       Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает, возможно пустой, список не более чем из {@code limit} объектов трансфера данных в порядке
+     * возрастания расстояния
+     */
+    public List<RegionDTO> getByFuzzyName(String name, int maxDistance, int limit) {
+        List<RegionDTO> found = new ArrayList<>();
+
+        for (String id : nameTrigramIndex.find(name, maxDistance, limit)) {
+            found.add(regionDTOsById.get(id));
+        }
+
+        return found;
+    }
+
+    /**
+     * Получает список регионов, наименование которых содержит все слова запроса без учета регистра, буквы ё и
+     * разделителей
+     *
+     * @param query Тип: {@link String}. Слова наименования региона
+     * @return Возвращает, возможно пустой, список объектов трансфера данных, отсортированный по наименованию
+     */
+    public List<RegionDTO> getByNameTokens(String query) {
+        List<RegionDTO> found = new ArrayList<>();
+
+        for (String id : nameTokenIndex.find(query)) {
+            found.add(regionDTOsById.get(id));
+        }
+
+        found.sort(Comparator.comparing((RegionDTO regionDTO) -> regionDTO.name)
+                .thenComparing(regionDTO -> regionDTO.id));
+
+        return found;
+    }
+
+    /**
+     * Получает список регионов по сокращенному наименованию без учета регистра и буквы ё
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона
+     * @return Возвращает неизменяемый, возможно пустой, список объектов трансфера данных
+     */
+    public List<RegionDTO> getByShortName(String shortName) {
+        return regionDTOsByShortName.getOrDefault(RegionNameNormalizer.normalize(shortName), Collections.emptyList());
+    }
+
+    /**
+     * Получает страницу списка регионов
+     *
+     * @param afterName Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                  для первой страницы
+     * @param afterKey  Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit     Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает, возможно пустой, список регионов, отсортированный по наименованию и первичному ключу.
+     * Регионы не должны изменяться
+     */
+    public List<Region> getPage(String afterName, Integer afterKey, int limit) {
+        return page(regions, 0, afterName, afterKey, limit, region -> true);
+    }
+
+    /**
+     * Получает страницу списка регионов по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона
+     * @param afterName     Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                      для первой страницы
+     * @param afterKey      Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit         Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает, возможно пустой, список регионов, отсортированный по наименованию и первичному ключу.
+     * Регионы не должны изменяться
+     */
+    public List<Region> getByNameBeginningPage(String nameBeginning, String afterName, Integer afterKey, int limit) {
+        int from = firstIndex(regions, region -> region.getName().compareTo(nameBeginning) < 0);
+
+        return page(regions, from, afterName, afterKey, limit, region -> region.getName().startsWith(nameBeginning));
+    }
+
+    /**
+     * Получает страницу списка регионов по сокращенному наименованию без учета регистра и буквы ё
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона
+     * @param afterName Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                  для первой страницы
+     * @param afterKey  Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit     Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает, возможно пустой, список регионов, отсортированный по наименованию и первичному ключу.
+     * Регионы не должны изменяться
+     */
+    public List<Region> getByShortNamePage(String shortName, String afterName, Integer afterKey, int limit) {
+        List<Region> found = regionsByShortName.getOrDefault(RegionNameNormalizer.normalize(shortName),
+                Collections.emptyList());
+
+        return page(found, 0, afterName, afterKey, limit, region -> true);
+    }
+
+    /**
+     * Получает количество регионов в снимке
+     *
+     * @return Возвращает количество регионов
+     */
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * Выбирает из отсортированного списка регионы, следующие за данным регионом
+     *
+     * @param sorted    Тип: {@link List List&lt;Region&gt;}. Список регионов в порядке {@link #REGION_ORDER}
+     * @param from      Тип: int. Позиция, с которой начинается диапазон подходящих регионов
+     * @param afterName Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     * @param afterKey  Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit     Тип: int. Максимальное количество возвращаемых регионов
+     * @param matches   Тип: {@link Predicate Predicate&lt;Region&gt;}. Условие, выполняющееся для непрерывного
+     *                  диапазона регионов, начинающегося с позиции {@code from}
+     * @return Возвращает список не более чем из {@code limit} регионов
+     */
+    private static List<Region> page(List<Region> sorted, int from, String afterName, Integer afterKey, int limit,
+                                     Predicate<Region> matches) {
+        if (afterName != null) {
+            Region after = new Region(afterKey, null, afterName, null);
+
+            from = Math.max(from, firstIndex(sorted, region -> REGION_ORDER.compare(region, after) <= 0));
+        }
+
+        List<Region> found = new ArrayList<>(Math.min(limit, sorted.size() - from));
+
+        for (int i = from; i < sorted.size() && found.size() < limit && matches.test(sorted.get(i)); i++) {
+            found.add(sorted.get(i));
+        }
+
+        return found;
+    }
+
+    /**
+     * Находит двоичным поиском первую позицию, для которой условие не выполняется
+     *
+     * @param sorted   Тип: {@link List List&lt;Region&gt;}. Список регионов в порядке {@link #REGION_ORDER}
+     * @param isBefore Тип: {@link Predicate Predicate&lt;Region&gt;}. Условие, выполняющееся для начального отрезка
+     *                 списка
+     * @return Возвращает первую позицию, для которой условие не выполняется, или размер списка
+     */
+    private static int firstIndex(List<Region> sorted, Predicate<Region> isBefore) {
+        int low = 0;
+        int high = sorted.size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (isBefore.test(sorted.get(middle))) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static Region copyOf(Region region) {
+        return new Region(region.getKey(), region.getId(), region.getName(), region.getShortName());
+    }
+
+    private static Map<String, List<RegionDTO>> freeze(Map<String, List<RegionDTO>> index) {
+        for (Map.Entry<String, List<RegionDTO>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+
+        return index;
+    }
+}
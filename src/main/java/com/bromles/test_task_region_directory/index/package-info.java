@@ -0,0 +1,4 @@
+/**
+ * Содержит неизменяемые индексы справочника регионов, хранящиеся в памяти
+ */
+package com.bromles.test_task_region_directory.index;
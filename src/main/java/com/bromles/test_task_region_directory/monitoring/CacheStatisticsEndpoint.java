@@ -0,0 +1,68 @@
+package com.bromles.test_task_region_directory.monitoring;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Эндпоинт Actuator со статистикой кэшей справочника регионов
+ * <p>
+ * Доступен по адресу {@code /actuator/cachestats}.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatisticsEndpoint {
+
+    private final CacheManager cacheManager;
+
+    CacheStatisticsEndpoint(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Получает статистику всех кэшей, поддерживающих ее сбор
+     *
+     * @return Возвращает пары, состоящие из названия кэша и его статистики: размера, количества попаданий, промахов,
+     * вытеснений и загрузок, а также времени загрузки значений
+     */
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache) {
+                com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache =
+                        (com.github.benmanes.caffeine.cache.Cache<?, ?>) cache.getNativeCache();
+
+                statistics.put(cacheName, describe(nativeCache.estimatedSize(), nativeCache.stats()));
+            }
+        }
+
+        return statistics;
+    }
+
+    private static Map<String, Object> describe(long size, CacheStats stats) {
+        Map<String, Object> description = new LinkedHashMap<>();
+
+        description.put("size", size);
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("hit-rate", stats.hitRate());
+        description.put("evictions", stats.evictionCount());
+        description.put("load-successes", stats.loadSuccessCount());
+        description.put("load-failures", stats.loadFailureCount());
+        description.put("total-load-time-ms", TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+        description.put("average-load-penalty-ms", stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1));
+
+        return description;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bromles.test_task_region_directory.monitoring;
+
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Постпроцессор, добавляющий измерение длительности ко всем операциям репозитория и сервиса справочника регионов
+ * <p>
+ * Операции репозитория публикуются в метрике {@value #REPOSITORY_METRIC}, операции сервиса - в метрике
+ * {@value #SERVICE_METRIC}. Если бин уже является прокси, например, кэширующим, перехватчик добавляется первым, поэтому
+ * измеренное время включает обращение к кэшу.
+ */
+@Component
+public class RegionDirectoryMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    public static final String REPOSITORY_METRIC = "region.directory.repository";
+
+    public static final String SERVICE_METRIC = "region.directory.service";
+
+    /**
+     * Конструктор постпроцессора
+     *
+     * @param meterRegistryProvider Тип: {@link ObjectProvider ObjectProvider&lt;MeterRegistry&gt;}. Поставщик реестра
+     *                              метрик
+     */
+    public RegionDirectoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        Map<Class<?>, String> metricNames = new LinkedHashMap<>();
+        metricNames.put(IRegionRepository.class, REPOSITORY_METRIC);
+        metricNames.put(IRegionDirectoryService.class, SERVICE_METRIC);
+
+        this.advisor = new DefaultPointcutAdvisor(new OperationPointcut(metricNames.keySet().toArray(new Class<?>[0])),
+                new TimedOperationInterceptor(meterRegistryProvider, metricNames));
+        this.beforeExistingAdvisors = true;
+    }
+
+    /**
+     * Срез, выбирающий методы, объявленные в интерфейсах, которые реализует класс бина
+     */
+    private static final class OperationPointcut extends StaticMethodMatcherPointcut {
+
+        private final Class<?>[] interfaces;
+
+        private OperationPointcut(Class<?>[] interfaces) {
+            this.interfaces = interfaces;
+
+            setClassFilter(this::implementsAny);
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            for (Class<?> operationInterface : interfaces) {
+                if (operationInterface.isAssignableFrom(targetClass)
+                        && ClassUtils.hasMethod(operationInterface, method.getName(), method.getParameterTypes())) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean implementsAny(Class<?> targetClass) {
+            for (Class<?> operationInterface : interfaces) {
+                if (operationInterface.isAssignableFrom(targetClass)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
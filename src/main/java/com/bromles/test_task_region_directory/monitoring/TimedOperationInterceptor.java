@@ -0,0 +1,232 @@
+package com.bromles.test_task_region_directory.monitoring;
+
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.service.RegionPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перехватчик вызовов операций справочника регионов, измеряющий их длительность
+ * <p>
+ * Для каждой операции и каждого ее исхода ведется отдельный таймер с тегами {@code operation} и {@code outcome}.
+ * Таймер одновременно служит счетчиком вызовов: в формате Prometheus он публикуется как {@code <имя>_seconds_count},
+ * {@code <имя>_seconds_sum} и {@code <имя>_seconds_max}. Таймеры создаются при первом вызове операции и далее
+ * берутся из локальной таблицы без обращения к реестру.
+ */
+final class TimedOperationInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final Map<Class<?>, String> metricNames;
+
+    private final Map<Method, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор перехватчика
+     *
+     * @param meterRegistryProvider Тип: {@link ObjectProvider ObjectProvider&lt;MeterRegistry&gt;}. Поставщик реестра
+     *                              метрик, получаемого при первом вызове, чтобы не инициализировать его преждевременно
+     * @param metricNames           Тип: {@link Map Map&lt;Class&lt;?&gt;, String&gt;}. Пары, состоящие из интерфейса
+     *                              и названия метрики его операций
+     */
+    TimedOperationInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider, Map<Class<?>, String> metricNames) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.metricNames = metricNames;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        OperationMetrics metrics = operationMetrics.get(invocation.getMethod());
+
+        if (metrics == null) {
+            MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+
+            if (meterRegistry == null) {
+                return invocation.proceed();
+            }
+
+            metrics = operationMetrics.computeIfAbsent(invocation.getMethod(),
+                    method -> new OperationMetrics(meterRegistry, metricName(invocation.getThis()), method));
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+
+        try {
+            Object result = invocation.proceed();
+            outcome = metrics.outcomeOf(result);
+
+            return result;
+        }
+        catch (Throwable ex) {
+            outcome = Outcome.of(ex);
+
+            throw ex;
+        }
+        finally {
+            metrics.timer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String metricName(Object target) {
+        for (Map.Entry<Class<?>, String> entry : metricNames.entrySet()) {
+            if (entry.getKey().isInstance(target)) {
+                return entry.getValue();
+            }
+        }
+
+        throw new IllegalStateException("No metric name for " + target.getClass().getName());
+    }
+
+    /**
+     * Исход вызова операции, используемый в качестве значения тега {@code outcome}
+     */
+    enum Outcome {
+
+        FOUND("found"),
+        NOT_FOUND("not-found"),
+        DUPLICATE("duplicate"),
+        SUCCESS("success"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * Определяет исход вызова, завершившегося исключением
+         *
+         * @param ex Тип: {@link Throwable}. Исключение, сгенерированное операцией
+         * @return Возвращает исход вызова
+         */
+        static Outcome of(Throwable ex) {
+            if (ex instanceof RecordNotFoundException) {
+                return NOT_FOUND;
+            }
+
+            if (ex instanceof DuplicateUniqueValuesException || ex instanceof DuplicateKeyException) {
+                return DUPLICATE;
+            }
+
+            return ERROR;
+        }
+
+        /**
+         * Получает значение тега
+         *
+         * @return Возвращает значение тега {@code outcome}
+         */
+        String getTag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Таймеры одной операции и способ определения ее исхода по возвращенному значению
+     */
+    private static final class OperationMetrics {
+
+        private final Timer[] timers = new Timer[Outcome.values().length];
+
+        /**
+         * Признак операции без результата, успешное завершение которой не означает найденных записей
+         */
+        private final boolean returnsNothing;
+
+        /**
+         * Признак операции, возвращающей по элементу на каждую запись: {@code null} для принятой записи или
+         * исключение для отклоненной
+         */
+        private final boolean returnsRejections;
+
+        private OperationMetrics(MeterRegistry meterRegistry, String metricName, Method method) {
+            Class<?> returnType = method.getReturnType();
+
+            this.returnsNothing = returnType == void.class;
+            this.returnsRejections = isCollectionOfThrowables(method.getGenericReturnType());
+
+            for (Outcome outcome : Outcome.values()) {
+                timers[outcome.ordinal()] = Timer.builder(metricName)
+                        .tag("operation", method.getName())
+                        .tag("outcome", outcome.getTag())
+                        .register(meterRegistry);
+            }
+        }
+
+        private Timer timer(Outcome outcome) {
+            return timers[outcome.ordinal()];
+        }
+
+        /**
+         * Определяет исход вызова, завершившегося без исключения
+         *
+         * @param result Тип: {@link Object}. Значение, возвращенное операцией
+         * @return Возвращает {@link Outcome#NOT_FOUND}, если операция поиска, обновления или удаления не затронула ни
+         * одной записи или вернула {@code false}, {@link Outcome#DUPLICATE}, если часть записей отклонена, иначе -
+         * {@link Outcome#FOUND} или {@link Outcome#SUCCESS} для операций без результата
+         */
+        private Outcome outcomeOf(Object result) {
+            if (returnsNothing) {
+                return Outcome.SUCCESS;
+            }
+
+            if (returnsRejections) {
+                return containsRejection((Collection<?>) result) ? Outcome.DUPLICATE : Outcome.SUCCESS;
+            }
+
+            if (result == null
+                    || result instanceof Collection && ((Collection<?>) result).isEmpty()
+                    || result instanceof RegionPage && ((RegionPage) result).getRegionDTOs().isEmpty()
+                    || result instanceof Number && ((Number) result).longValue() == 0
+                    || Boolean.FALSE.equals(result)) {
+                return Outcome.NOT_FOUND;
+            }
+
+            return Outcome.FOUND;
+        }
+
+        private static boolean containsRejection(Collection<?> rejections) {
+            if (rejections == null) {
+                return false;
+            }
+
+            for (Object rejection : rejections) {
+                if (rejection != null) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean isCollectionOfThrowables(Type type) {
+            if (!(type instanceof ParameterizedType)) {
+                return false;
+            }
+
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+
+            return parameterizedType.getRawType() instanceof Class
+                    && Collection.class.isAssignableFrom((Class<?>) parameterizedType.getRawType())
+                    && arguments.length == 1
+                    && arguments[0] instanceof Class
+                    && Throwable.class.isAssignableFrom((Class<?>) arguments[0]);
+        }
+    }
+}
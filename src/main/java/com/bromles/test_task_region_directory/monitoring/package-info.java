@@ -0,0 +1,4 @@
+/**
+ * Содержит компоненты мониторинга сервера
+ */
+package com.bromles.test_task_region_directory.monitoring;
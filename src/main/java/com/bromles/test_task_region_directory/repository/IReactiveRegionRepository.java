@@ -0,0 +1,79 @@
+package com.bromles.test_task_region_directory.repository;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Интерфейс неблокирующего репозитория справочника регионов
+ * <p>
+ * Реактивный аналог {@link IRegionRepository}. Запросы выполняются при подписке на возвращаемый издатель.
+ */
+public interface IReactiveRegionRepository {
+
+    /**
+     * Добавляет регион в репозиторий
+     *
+     * @param region Тип: {@link Region}. Сущность для добавления
+     * @return Возвращает издатель, завершающийся после добавления региона или ошибкой
+     * {@link org.springframework.dao.DuplicateKeyException} при нарушении уникальности идентификатора
+     */
+    Mono<Void> save(Region region);
+
+    /**
+     * Получает все регионы
+     *
+     * @return Возвращает издатель регионов, отсортированных по наименованию
+     */
+    Flux<Region> getAll();
+
+    /**
+     * Получает регион по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает издатель найденного региона или пустой издатель, если регион не найден
+     */
+    Mono<Region> getById(String id);
+
+    /**
+     * Получает регионы по наименованию
+     *
+     * @param name Тип: {@link String}. Наименование региона
+     * @return Возвращает издатель найденных регионов
+     */
+    Flux<Region> getByName(String name);
+
+    /**
+     * Получает регионы по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона
+     * @return Возвращает издатель найденных регионов, отсортированных по наименованию
+     */
+    Flux<Region> getByNameBeginning(String nameBeginning);
+
+    /**
+     * Получает регионы по сокращенному наименованию
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона
+     * @return Возвращает издатель найденных регионов, отсортированных по наименованию
+     */
+    Flux<Region> getByShortName(String shortName);
+
+    /**
+     * Обновляет регион по идентификатору
+     *
+     * @param id     Тип: {@link String}. Идентификатор обновляемого региона
+     * @param region Тип: {@link Region}. Новые данные региона
+     * @return Возвращает издатель количества обновленных записей или ошибки
+     * {@link org.springframework.dao.DuplicateKeyException} при нарушении уникальности идентификатора
+     */
+    Mono<Integer> updateById(String id, Region region);
+
+    /**
+     * Удаляет регион по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор удаляемого региона
+     * @return Возвращает издатель количества удаленных записей
+     */
+    Mono<Integer> deleteById(String id);
+}
@@ -1,24 +1,75 @@
 package com.bromles.test_task_region_directory.repository;
 
 import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionChange;
+import com.bromles.test_task_region_directory.index.RegionNameNormalizer;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Интерфейс репозитория справочника регионов
+ * <p>
+ * Операции записи добавляют, изменяют или удаляют регион и добавляют запись в журнал изменений
+ * {@code region_changes} в одной транзакции, поэтому журнал содержит все изменения, внесенные через репозиторий.
  */
 @Mapper
 public interface IRegionRepository {
 
     /**
-     * Добавляет регион в репозиторий
+     * Условие выборки регионов, следующих за регионом с наименованием {@code afterName} и первичным ключом
+     * {@code afterKey} в порядке сортировки по наименованию и первичному ключу. Не применяется для первой страницы
+     */
+    String KEYSET_CONDITION = "<if test='afterName != null'>" +
+            "AND name &gt;= #{afterName} AND (name &gt; #{afterName} OR key &gt; #{afterKey})" +
+            "</if>";
+
+    /**
+     * Параметр {@code name}, приведенный к ключу поиска тем же выражением, что и вычисляемый столбец
+     * {@code normalized_name}, и так же, как {@link RegionNameNormalizer#normalize(String)}
+     */
+    String NORMALIZED_NAME = "TRIM(REGEXP_REPLACE(LOWER(REPLACE(REPLACE(#{name}, 'Ё', 'Е'), 'ё', 'е')), " +
+            "'[^\\p{L}\\p{Nd}]+', ' '))";
+
+    /**
+     * Параметр {@code shortName}, приведенный к ключу поиска тем же выражением, что и вычисляемый столбец
+     * {@code normalized_short_name}
+     */
+    String NORMALIZED_SHORT_NAME = "TRIM(REGEXP_REPLACE(LOWER(REPLACE(REPLACE(#{shortName}, 'Ё', 'Е'), 'ё', 'е')), " +
+            "'[^\\p{L}\\p{Nd}]+', ' '))";
+
+    /**
+     * Добавляет регион в репозиторий и запись о нем в журнал изменений в одной транзакции
+     *
+     * @param region Тип: {@link Region}. Сущность для добавления
+     */
+    @Transactional
+    default void save(Region region) {
+        insert(region);
+        logChange(region.getId());
+    }
+
+    /**
+     * Добавляет регион в репозиторий без записи в журнал изменений
      *
      * @param region Тип: {@link Region}. Сущность для добавления
      */
     @Insert("INSERT INTO regions (id, name, short_name) VALUES (#{id}, #{name}, #{shortName})")
     @Options(useGeneratedKeys = true, keyProperty = "key", keyColumn = "key")
-    void save(Region region);
+    void insert(Region region);
+
+    /**
+     * Добавляет регион в репозиторий без получения сгенерированного первичного ключа и без записи в журнал изменений.
+     * Используется при пакетной вставке вместе с {@link #logChange(String)}
+     *
+     * @param region Тип: {@link Region}. Сущность для добавления
+     */
+    @Insert("INSERT INTO regions (id, name, short_name) VALUES (#{id}, #{name}, #{shortName})")
+    void saveWithoutGeneratedKey(Region region);
 
     /**
      * Получает список регионов
@@ -28,6 +79,21 @@ public interface IRegionRepository {
     @Select("SELECT key, id, name, short_name FROM regions ORDER BY name")
     List<Region> getAll();
 
+    /**
+     * Передает все регионы обработчику по одному по мере чтения результата запроса, не собирая их в список
+     * <p>
+     * Строки запрашиваются у драйвера порциями по {@code fetchSize}. Встроенная H2 отдает их порциями только при
+     * включенном режиме {@code LAZY_QUERY_EXECUTION}, поэтому он задан в URL источника данных. Без него результат
+     * буферизуется драйвером.
+     *
+     * @param resultHandler Тип: {@link ResultHandler ResultHandler&lt;Region&gt;}. Обработчик, получающий регионы в
+     *                      порядке сортировки по наименованию
+     */
+    @Select("SELECT key, id, name, short_name FROM regions ORDER BY name, key")
+    @Options(fetchSize = 256, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultType(Region.class)
+    void streamAll(ResultHandler<Region> resultHandler);
+
     /**
      * Получает регион по идентификатору
      *
@@ -38,12 +104,40 @@ public interface IRegionRepository {
     Region getById(String id);
 
     /**
-     * Получает список регионов по наименованию
+     * Получает регионы по списку идентификаторов одним запросом
+     *
+     * @param ids Тип: {@link Collection Collection&lt;String&gt;}. Идентификаторы регионов, по которым осуществляется
+     *            поиск. Не может быть пустым
+     * @return Возвращает список найденных регионов в произвольном порядке
+     */
+    @Select({"<script>",
+            "SELECT key, id, name, short_name FROM regions WHERE id IN ",
+            "<foreach item='id' collection='ids' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<Region> getByIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Получает идентификаторы из данного списка, уже существующие в репозитории
+     *
+     * @param ids Тип: {@link Collection Collection&lt;String&gt;}. Идентификаторы регионов для проверки. Не может быть
+     *            пустым
+     * @return Возвращает список существующих идентификаторов
+     */
+    @Select({"<script>",
+            "SELECT id FROM regions WHERE id IN ",
+            "<foreach item='id' collection='ids' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<String> getExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * Получает список регионов по наименованию без учета регистра, буквы ё и разделителей. Поиск выполняется по
+     * индексу вычисляемого столбца {@code normalized_name}
      *
      * @param name Тип: {@link String}. Наименование региона, по которому осуществляется поиск
      * @return Возвращает список регионов
      */
-    @Select("SELECT key, id, name, short_name FROM regions WHERE name = #{name} ORDER BY name")
+    @Select("SELECT key, id, name, short_name FROM regions WHERE normalized_name = " + NORMALIZED_NAME +
+            " ORDER BY name")
     List<Region> getByName(String name);
 
     /**
@@ -52,35 +146,170 @@ public interface IRegionRepository {
      * @param nameBeginning Тип: {@link String}. Начало наименования региона, по которому осуществляется поиск
      * @return Возвращает список регионов
      */
-    @Select("SELECT key, id, name, short_name FROM regions WHERE name LIKE '${nameBeginning}%' ORDER BY name")
+    @Select("SELECT key, id, name, short_name FROM regions WHERE name LIKE CONCAT(#{nameBeginning}, '%') ORDER BY name")
     List<Region> getByNameBeginning(String nameBeginning);
 
     /**
-     * Получает список регионов по сокращенному наименованию
+     * Получает страницу списка регионов
+     *
+     * @param afterName Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                  для первой страницы
+     * @param afterKey  Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit     Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает список регионов, отсортированный по наименованию и первичному ключу
+     */
+    @Select({"<script>",
+            "SELECT key, id, name, short_name FROM regions WHERE 1 = 1",
+            KEYSET_CONDITION,
+            "ORDER BY name, key LIMIT #{limit}",
+            "</script>"})
+    List<Region> getPage(String afterName, Integer afterKey, int limit);
+
+    /**
+     * Получает страницу списка регионов по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона, по которому осуществляется поиск
+     * @param afterName     Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                      для первой страницы
+     * @param afterKey      Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit         Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает список регионов, отсортированный по наименованию и первичному ключу
+     */
+    @Select({"<script>",
+            "SELECT key, id, name, short_name FROM regions WHERE name LIKE CONCAT(#{nameBeginning}, '%')",
+            KEYSET_CONDITION,
+            "ORDER BY name, key LIMIT #{limit}",
+            "</script>"})
+    List<Region> getByNameBeginningPage(String nameBeginning, String afterName, Integer afterKey, int limit);
+
+    /**
+     * Получает список регионов по сокращенному наименованию без учета регистра и буквы ё. Поиск выполняется по
+     * индексу вычисляемого столбца {@code normalized_short_name}
      *
      * @param shortName Тип: {@link String}. Сокращенное наименование региона, по которому осуществляется поиск
      * @return Возвращает список регионов
      */
-    @Select("SELECT key, id, name, short_name FROM regions WHERE short_name = #{shortName} ORDER BY name")
+    @Select("SELECT key, id, name, short_name FROM regions WHERE normalized_short_name = " + NORMALIZED_SHORT_NAME +
+            " ORDER BY name")
     List<Region> getByShortName(String shortName);
 
     /**
-     * Обновляет регион по идентификатору
+     * Получает страницу списка регионов по сокращенному наименованию без учета регистра и буквы ё
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона, по которому осуществляется поиск
+     * @param afterName Тип: {@link String}. Наименование последнего региона предыдущей страницы или {@code null}
+     *                  для первой страницы
+     * @param afterKey  Тип: {@link Integer}. Первичный ключ последнего региона предыдущей страницы
+     * @param limit     Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает список регионов, отсортированный по наименованию и первичному ключу
+     */
+    @Select({"<script>",
+            "SELECT key, id, name, short_name FROM regions WHERE normalized_short_name = " + NORMALIZED_SHORT_NAME,
+            KEYSET_CONDITION,
+            "ORDER BY name, key LIMIT #{limit}",
+            "</script>"})
+    List<Region> getByShortNamePage(String shortName, String afterName, Integer afterKey, int limit);
+
+    /**
+     * Обновляет регион по идентификатору и добавляет запись о нем в журнал изменений в одной транзакции. Если
+     * идентификатор изменен, в журнал добавляется также запись о старом идентификаторе, которая становится надгробием
      *
      * @param id Тип: {@link String}. Идентификатор, по которому осуществляется поиск региона в репозитории для обновления
      * @param region Тип: {@link Region}. Сущность, заменяющая данные
      * @return Возвращает количество обновленных записей
      */
+    @Transactional
+    default int updateById(String id, Region region) {
+        int updatedRows = update(id, region);
+
+        if (updatedRows > 0) {
+            if (!id.equals(region.getId())) {
+                logChange(id);
+            }
+
+            logChange(region.getId());
+        }
+
+        return updatedRows;
+    }
+
+    /**
+     * Обновляет регион по идентификатору без записи в журнал изменений
+     *
+     * @param id     Тип: {@link String}. Идентификатор, по которому осуществляется поиск региона в репозитории для
+     *               обновления
+     * @param region Тип: {@link Region}. Сущность, заменяющая данные
+     * @return Возвращает количество обновленных записей
+     */
     @Update("UPDATE regions set id = #{region.id}, name = #{region.name}, short_name = #{region.shortName} " +
             "WHERE id = #{id}")
-    int updateById(String id, Region region);
+    int update(String id, Region region);
+
+    /**
+     * Удаляет регион по идентификатору и добавляет надгробие в журнал изменений в одной транзакции
+     *
+     * @param id Тип: {@link String}. Идентификатор, по которому осуществляется поиск региона для удаления
+     * @return Возвращает количество удаленных записей
+     */
+    @Transactional
+    default int deleteById(String id) {
+        int deletedRows = delete(id);
+
+        if (deletedRows > 0) {
+            logChange(id);
+        }
+
+        return deletedRows;
+    }
 
     /**
-     * Удаляет регион по идентификатору
+     * Удаляет регион по идентификатору без записи в журнал изменений
      *
      * @param id Тип: {@link String}. Идентификатор, по которому осуществляется поиск региона для удаления
      * @return Возвращает количество удаленных записей
      */
     @Delete("DELETE FROM regions WHERE id = #{id}")
-    int deleteById(String id);
+    int delete(String id);
+
+    /**
+     * Добавляет в журнал изменений запись об изменении региона со следующим номером версии журнала. Значение региона
+     * в журнале не хранится и берется из таблицы регионов при чтении журнала
+     *
+     * @param id Тип: {@link String}. Идентификатор добавленного, измененного или удаленного региона
+     */
+    @Insert("INSERT INTO region_changes (id) VALUES (#{id})")
+    void logChange(String id);
+
+    /**
+     * Получает номер последней версии журнала изменений
+     *
+     * @return Возвращает номер последней версии журнала или 0, если журнал пуст
+     */
+    @Select("SELECT COALESCE(MAX(version), 0) FROM region_changes")
+    long getLastChangeVersion();
+
+    /**
+     * Получает последние изменения регионов, внесенные после данной версии журнала. Для каждого идентификатора
+     * возвращается только последняя запись журнала с текущим значением региона или надгробием. Идентификаторы,
+     * последняя запись которых новее {@code until}, пропускаются и будут получены при следующей синхронизации
+     *
+     * @param since Тип: long. Номер версии журнала, после которой запрашиваются изменения
+     * @param until Тип: long. Номер последней включаемой версии журнала
+     * @return Возвращает список записей журнала в порядке возрастания версий
+     */
+    @Select("SELECT c.version, c.id, r.name, r.short_name FROM region_changes c LEFT JOIN regions r ON r.id = c.id " +
+            "WHERE c.version > #{since} AND c.version <= #{until} AND NOT EXISTS " +
+            "(SELECT 1 FROM region_changes n WHERE n.id = c.id AND n.version > c.version) ORDER BY c.version")
+    List<RegionChange> getChangesSince(long since, long until);
+
+    /**
+     * Сжимает журнал изменений, удаляя записи, для идентификатора которых есть более новая запись. Ответы на запросы
+     * изменений после любой версии от этого не меняются, а размер журнала ограничивается количеством различных
+     * идентификаторов
+     *
+     * @return Возвращает количество удаленных записей
+     */
+    @Delete("DELETE FROM region_changes c WHERE EXISTS " +
+            "(SELECT 1 FROM region_changes n WHERE n.id = c.id AND n.version > c.version)")
+    int compactChanges();
 }
@@ -0,0 +1,173 @@
+package com.bromles.test_task_region_directory.repository;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Неблокирующий репозиторий справочника регионов на основе R2DBC
+ * <p>
+ * Выполняет те же запросы, что и {@link IRegionRepository}, через драйвер R2DBC. Каждый запрос получает соединение
+ * при подписке и закрывает его по завершении, ошибке или отмене подписки. Операции записи, как и в
+ * {@link IRegionRepository}, ведут журнал изменений в той же транзакции. Используется только в реактивном
+ * веб-приложении.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcRegionRepository implements IReactiveRegionRepository {
+
+    private static final String SELECT_REGIONS = "SELECT key, id, name, short_name FROM regions";
+
+    /**
+     * Первый параметр запроса, приведенный к ключу поиска тем же выражением, что и вычисляемые столбцы
+     * {@code normalized_name} и {@code normalized_short_name}
+     */
+    private static final String NORMALIZED_PARAMETER =
+            "TRIM(REGEXP_REPLACE(LOWER(REPLACE(REPLACE($1, 'Ё', 'Е'), 'ё', 'е')), '[^\\p{L}\\p{Nd}]+', ' '))";
+
+    /**
+     * Запрос, добавляющий запись в журнал изменений, как {@link IRegionRepository#logChange(String)}
+     */
+    private static final String LOG_CHANGE = "INSERT INTO region_changes (id) VALUES ($1)";
+
+    private final ConnectionFactory connectionFactory;
+
+    R2dbcRegionRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Mono<Void> save(Region region) {
+        return write(Collections.singletonList(region.getId()),
+                "INSERT INTO regions (id, name, short_name) VALUES ($1, $2, $3)",
+                region.getId(), region.getName(), region.getShortName()).then();
+    }
+
+    @Override
+    public Flux<Region> getAll() {
+        return query(SELECT_REGIONS + " ORDER BY name");
+    }
+
+    @Override
+    public Mono<Region> getById(String id) {
+        return query(SELECT_REGIONS + " WHERE id = $1", id).next();
+    }
+
+    @Override
+    public Flux<Region> getByName(String name) {
+        return query(SELECT_REGIONS + " WHERE normalized_name = " + NORMALIZED_PARAMETER + " ORDER BY name", name);
+    }
+
+    @Override
+    public Flux<Region> getByNameBeginning(String nameBeginning) {
+        return query(SELECT_REGIONS + " WHERE name LIKE CONCAT($1, '%') ORDER BY name", nameBeginning);
+    }
+
+    @Override
+    public Flux<Region> getByShortName(String shortName) {
+        return query(SELECT_REGIONS + " WHERE normalized_short_name = " + NORMALIZED_PARAMETER + " ORDER BY name",
+                shortName);
+    }
+
+    @Override
+    public Mono<Integer> updateById(String id, Region region) {
+        List<String> changedIds = id.equals(region.getId())
+                ? Collections.singletonList(id)
+                : Arrays.asList(id, region.getId());
+
+        return write(changedIds, "UPDATE regions SET id = $1, name = $2, short_name = $3 WHERE id = $4",
+                region.getId(), region.getName(), region.getShortName(), id);
+    }
+
+    @Override
+    public Mono<Integer> deleteById(String id) {
+        return write(Collections.singletonList(id), "DELETE FROM regions WHERE id = $1", id);
+    }
+
+    private Flux<Region> query(String sql, Object... parameters) {
+        return execute(sql, result -> result.map((row, metadata) -> toRegion(row)), parameters);
+    }
+
+    /**
+     * Выполняет запрос на изменение и добавляет записи в журнал изменений в одной транзакции в отдельном соединении,
+     * как и операции записи {@link IRegionRepository}
+     *
+     * @param changedIds Тип: {@link List List&lt;String&gt;}. Идентификаторы регионов, записываемые в журнал, если
+     *                   запрос изменил хотя бы одну строку
+     * @param sql        Тип: {@link String}. Текст запроса с параметрами {@code $1}, {@code $2} и т.д.
+     * @param parameters Тип: varargs<Object>. Значения параметров запроса в порядке их номеров
+     * @return Возвращает количество измененных запросом строк. Нарушение уникальности передается как
+     * {@link DuplicateKeyException}. При ошибке или отмене подписки транзакция откатывается
+     */
+    private Mono<Integer> write(List<String> changedIds, String sql, Object... parameters) {
+        return Mono.usingWhen(connectionFactory.create(),
+                connection -> Mono.from(connection.beginTransaction())
+                        .then(rowsUpdated(connection, sql, parameters))
+                        .flatMap(rows -> Flux.fromIterable(rows > 0 ? changedIds : Collections.<String>emptyList())
+                                .concatMap(id -> rowsUpdated(connection, LOG_CHANGE, id))
+                                .then(Mono.from(connection.commitTransaction()))
+                                .thenReturn(rows)),
+                Connection::close,
+                (connection, ex) -> rollbackAndClose(connection),
+                R2dbcRegionRepository::rollbackAndClose)
+                .onErrorMap(R2dbcDataIntegrityViolationException.class,
+                        ex -> new DuplicateKeyException(ex.getMessage(), ex));
+    }
+
+    private static Mono<Integer> rowsUpdated(Connection connection, String sql, Object... parameters) {
+        return Flux.from(bind(connection.createStatement(sql), parameters).execute())
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0, Integer::sum);
+    }
+
+    private static Mono<Void> rollbackAndClose(Connection connection) {
+        return Mono.from(connection.rollbackTransaction()).then(Mono.from(connection.close()));
+    }
+
+    /**
+     * Выполняет запрос в отдельном соединении
+     *
+     * @param sql        Тип: {@link String}. Текст запроса с параметрами {@code $1}, {@code $2} и т.д.
+     * @param mapper     Тип: {@link Function Function&lt;Result, Publisher&lt;T&gt;&gt;}. Функция, извлекающая
+     *                   значения из результата запроса
+     * @param parameters Тип: varargs<Object>. Значения параметров запроса в порядке их номеров
+     * @param <T>        Тип извлекаемых значений
+     * @return Возвращает издатель значений, извлеченных из результата запроса. Нарушение уникальности передается
+     * как {@link DuplicateKeyException}, как и в {@link IRegionRepository}
+     */
+    private <T> Flux<T> execute(String sql, Function<Result, Publisher<T>> mapper, Object... parameters) {
+        return Flux.usingWhen(connectionFactory.create(),
+                connection -> Flux.from(bind(connection.createStatement(sql), parameters).execute()).flatMap(mapper),
+                Connection::close)
+                .onErrorMap(R2dbcDataIntegrityViolationException.class,
+                        ex -> new DuplicateKeyException(ex.getMessage(), ex));
+    }
+
+    private static Statement bind(Statement statement, Object... parameters) {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.bind(i, parameters[i]);
+        }
+
+        return statement;
+    }
+
+    private static Region toRegion(Row row) {
+        return new Region(row.get(0, Integer.class), row.get(1, String.class), row.get(2, String.class),
+                row.get(3, String.class));
+    }
+}
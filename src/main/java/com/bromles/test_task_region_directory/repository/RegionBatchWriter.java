@@ -0,0 +1,81 @@
+package com.bromles.test_task_region_directory.repository;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Компонент пакетной записи регионов в репозиторий
+ * <p>
+ * Использует отдельную сессию MyBatis с пакетным исполнителем, поэтому все вставки отправляются в базу данных одним
+ * пакетом в рамках одной транзакции.
+ */
+@Component
+public class RegionBatchWriter {
+
+    private final SqlSessionTemplate batchSqlSession;
+
+    private final IRegionRepository batchRegionRepository;
+
+    RegionBatchWriter(SqlSessionFactory sqlSessionFactory) {
+        if (!sqlSessionFactory.getConfiguration().hasMapper(IRegionRepository.class)) {
+            sqlSessionFactory.getConfiguration().addMapper(IRegionRepository.class);
+        }
+
+        this.batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        this.batchRegionRepository = batchSqlSession.getMapper(IRegionRepository.class);
+    }
+
+    /**
+     * Добавляет регионы в репозиторий и записи о них в журнал изменений одним пакетом в одной транзакции
+     * <p>
+     * Регионы, идентификатор которых уже существует в репозитории или повторяется в данном списке, пропускаются.
+     * Записи журнала вставляются после всех регионов, чтобы пакетный исполнитель не разбивал вставки на части.
+     *
+     * @param regions Тип: {@link List List&lt;Region&gt;}. Сущности для добавления
+     * @return Возвращает множество позиций в данном списке, регионы на которых не были добавлены из-за повторяющегося
+     * идентификатора
+     */
+    @Transactional
+    public Set<Integer> saveAll(List<Region> regions) {
+        Set<Integer> rejected = new HashSet<>();
+
+        if (regions.isEmpty()) {
+            return rejected;
+        }
+
+        Set<String> ids = new LinkedHashSet<>();
+
+        for (Region region : regions) {
+            ids.add(region.getId());
+        }
+
+        Set<String> takenIds = new HashSet<>(batchRegionRepository.getExistingIds(ids));
+        List<String> savedIds = new ArrayList<>(regions.size());
+
+        for (int i = 0; i < regions.size(); i++) {
+            Region region = regions.get(i);
+
+            if (takenIds.add(region.getId())) {
+                batchRegionRepository.saveWithoutGeneratedKey(region);
+                savedIds.add(region.getId());
+            }
+            else {
+                rejected.add(i);
+            }
+        }
+
+        for (String id : savedIds) {
+            batchRegionRepository.logChange(id);
+        }
+
+        batchSqlSession.flushStatements();
+
+        return rejected;
+    }
+}
@@ -0,0 +1,120 @@
+package com.bromles.test_task_region_directory.repository;
+
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Планировщик сжатия журнала изменений справочника регионов
+ * <p>
+ * Сжимает журнал в фоновом потоке с заданным интервалом, если с момента предыдущего сжатия справочник изменялся.
+ * После сжатия в журнале остается одна запись на каждый идентификатор, поэтому его размер не растет с количеством
+ * изменений.
+ */
+@Component
+@EnableConfigurationProperties(RegionChangeLogProperties.class)
+public class RegionChangeLogCompactor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(RegionChangeLogCompactor.class);
+
+    private final IRegionRepository regionRepository;
+
+    private final Duration interval;
+
+    /**
+     * Количество изменений справочника с момента запуска
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Количество изменений справочника, учтенных последним сжатием. Отличается от {@link #changes} при запуске,
+     * чтобы первое сжатие удалило записи, накопленные до запуска
+     */
+    private volatile long compactedChanges = -1;
+
+    private ScheduledExecutorService executor;
+
+    RegionChangeLogCompactor(IRegionRepository regionRepository, RegionChangeLogProperties properties) {
+        this.regionRepository = regionRepository;
+        this.interval = properties.getCompactionInterval();
+    }
+
+    /**
+     * Обрабатывает событие изменения справочника, отмечая необходимость сжатия журнала
+     *
+     * @param event Тип: {@link RegionDirectoryChangedEvent}. Событие изменения справочника
+     */
+    @EventListener
+    public void onDirectoryChanged(RegionDirectoryChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Сжимает журнал изменений, если справочник изменялся с момента предыдущего сжатия
+     */
+    public void compact() {
+        long observedChanges = changes.get();
+
+        if (observedChanges == compactedChanges) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        int removed = regionRepository.compactChanges();
+        compactedChanges = observedChanges;
+
+        log.debug("Change log compacted in {} ms, {} entries removed",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), removed);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "region-change-log-compaction");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        long period = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::scheduledCompaction, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdownNow();
+        executor = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    private void scheduledCompaction() {
+        try {
+            compact();
+        }
+        catch (RuntimeException ex) {
+            log.error("Unable to compact change log", ex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.bromles.test_task_region_directory.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки журнала изменений справочника регионов
+ */
+@ConfigurationProperties(prefix = "region-directory.change-log")
+public class RegionChangeLogProperties {
+
+    /**
+     * Интервал между сжатиями журнала изменений
+     */
+    private Duration compactionInterval = Duration.ofMinutes(10);
+
+    /**
+     * Получает интервал между сжатиями журнала
+     *
+     * @return Возвращает интервал между сжатиями журнала изменений
+     * @see #setCompactionInterval(Duration)
+     */
+    public Duration getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    /**
+     * Сохраняет интервал между сжатиями журнала
+     *
+     * @param compactionInterval Тип: {@link Duration}. Интервал между сжатиями журнала изменений. Должен быть
+     *                           положительным
+     * @see #getCompactionInterval()
+     */
+    public void setCompactionInterval(Duration compactionInterval) {
+        if (compactionInterval.isZero() || compactionInterval.isNegative()) {
+            throw new IllegalArgumentException("Change log compaction interval must be positive");
+        }
+
+        this.compactionInterval = compactionInterval;
+    }
+}
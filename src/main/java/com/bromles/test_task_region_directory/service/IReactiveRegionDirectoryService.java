@@ -0,0 +1,89 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Интерфейс неблокирующего сервиса справочника регионов
+ * <p>
+ * Реактивный аналог {@link IRegionDirectoryService}. Вместо генерации исключений возвращаемые издатели завершаются
+ * ошибками {@link RecordNotFoundException} и {@link DuplicateUniqueValuesException}.
+ */
+public interface IReactiveRegionDirectoryService {
+
+    /**
+     * Добавляет новый регион в репозиторий
+     *
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных, на основе которого генерируется сущность для
+     *                  добавления в репозиторий
+     * @return Возвращает издатель, завершающийся после добавления региона или ошибкой
+     * {@link DuplicateUniqueValuesException}, если регион с таким идентификатором уже существует
+     */
+    Mono<Void> add(RegionDTO regionDTO);
+
+    /**
+     * Получает все регионы
+     *
+     * @return Возвращает издатель объектов трансфера данных, завершающийся ошибкой {@link RecordNotFoundException}
+     * при отсутствии регионов в репозитории
+     */
+    Flux<RegionDTO> getAll();
+
+    /**
+     * Получает регион по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает издатель объекта трансфера данных, завершающийся ошибкой {@link RecordNotFoundException}
+     * при отсутствии региона с данным идентификатором
+     */
+    Mono<RegionDTO> getById(String id);
+
+    /**
+     * Получает регионы по наименованию
+     *
+     * @param name Тип: {@link String}. Наименование региона
+     * @return Возвращает издатель объектов трансфера данных, завершающийся ошибкой {@link RecordNotFoundException}
+     * при отсутствии регионов с данным наименованием
+     */
+    Flux<RegionDTO> getByName(String name);
+
+    /**
+     * Получает регионы по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона
+     * @return Возвращает издатель объектов трансфера данных, завершающийся ошибкой {@link RecordNotFoundException}
+     * при отсутствии регионов с наименованием, начинающимся с данной строки
+     */
+    Flux<RegionDTO> getByNameBeginning(String nameBeginning);
+
+    /**
+     * Получает регионы по сокращенному наименованию
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона
+     * @return Возвращает издатель объектов трансфера данных, завершающийся ошибкой {@link RecordNotFoundException}
+     * при отсутствии регионов с данным сокращенным наименованием
+     */
+    Flux<RegionDTO> getByShortName(String shortName);
+
+    /**
+     * Обновляет регион по идентификатору
+     *
+     * @param id        Тип: {@link String}. Идентификатор обновляемого региона
+     * @param regionDTO Тип: {@link RegionDTO}. Объект трансфера данных с новыми данными региона
+     * @return Возвращает издатель, завершающийся после обновления региона, ошибкой {@link RecordNotFoundException}
+     * при отсутствии региона или ошибкой {@link DuplicateUniqueValuesException}, если новый идентификатор занят
+     */
+    Mono<Void> updateById(String id, RegionDTO regionDTO);
+
+    /**
+     * Удаляет регион по идентификатору
+     *
+     * @param id Тип: {@link String}. Идентификатор удаляемого региона
+     * @return Возвращает издатель, завершающийся после удаления региона или ошибкой {@link RecordNotFoundException}
+     * при отсутствии региона
+     */
+    Mono<Void> deleteById(String id);
+}
@@ -4,7 +4,9 @@ import com.bromles.test_task_region_directory.entity.RegionDTO;
 import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
 import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс сервиса справочника регионов
@@ -21,6 +23,18 @@ public interface IRegionDirectoryService {
      */
     void add(RegionDTO regionDTO) throws DuplicateUniqueValuesException;
 
+    /**
+     * Добавляет список регионов в репозиторий одним пакетом в одной транзакции
+     *
+     * @param regionDTOs Тип: {@link List List&lt;RegionDTO&gt;}. Объекты трансфера данных, на основе которых
+     *                   генерируются сущности для добавления в репозиторий
+     * @return Возвращает список той же длины, содержащий для каждого региона {@code null}, если регион добавлен, или
+     * исключение, описывающее нарушение уникальности идентификатора
+     * @throws DuplicateUniqueValuesException Исключение, генерируемое, если пакет был отклонен репозиторием целиком
+     *                                        из-за нарушения уникальности идентификатора
+     */
+    List<DuplicateUniqueValuesException> addAll(List<RegionDTO> regionDTOs) throws DuplicateUniqueValuesException;
+
     /**
      * Получает список регионов
      *
@@ -29,6 +43,35 @@ public interface IRegionDirectoryService {
      */
     List<RegionDTO> getAll() throws RecordNotFoundException;
 
+    /**
+     * Получает страницу списка регионов
+     *
+     * @param after Тип: {@link RegionPageToken}. Токен, полученный с предыдущей страницей, или {@code null} для
+     *              первой страницы
+     * @param limit Тип: int. Размер страницы
+     * @return Возвращает страницу не более чем из {@code limit} объектов трансфера данных, следующих за предыдущей
+     * страницей в порядке сортировки по наименованию, и токен следующей страницы
+     * @throws RecordNotFoundException Исключение, генерируемое, если первая страница пуста
+     */
+    RegionPage getAllPage(RegionPageToken after, int limit) throws RecordNotFoundException;
+
+    /**
+     * Передает все регионы получателю по одному, не собирая их в промежуточный список
+     *
+     * @param consumer Тип: {@link Consumer Consumer&lt;RegionDTO&gt;}. Получатель объектов трансфера данных в порядке
+     *                 сортировки по наименованию
+     * @return Возвращает количество переданных регионов
+     */
+    int streamAll(Consumer<RegionDTO> consumer);
+
+    /**
+     * Проверяет, хранится ли справочник в памяти
+     *
+     * @return Возвращает {@code true}, если чтения обслуживаются из снимка справочника, и {@code false}, если
+     * справочник читается из репозитория при каждом запросе
+     */
+    boolean isHeldInMemory();
+
     /**
      * Получает регион по идентификатору
      *
@@ -39,6 +82,15 @@ public interface IRegionDirectoryService {
      */
     RegionDTO getById(String id) throws RecordNotFoundException;
 
+    /**
+     * Получает регионы по списку идентификаторов, не прерывая поиск при отсутствии некоторых из них
+     *
+     * @param ids Тип: {@link Collection Collection&lt;String&gt;}. Идентификаторы регионов, по которым
+     *            осуществляется поиск. Повторяющиеся идентификаторы учитываются один раз
+     * @return Возвращает найденные регионы и идентификаторы, регионы с которыми не найдены, в порядке запроса
+     */
+    RegionLookup getByIds(Collection<String> ids);
+
     /**
      * Получает список регионов по наименованию
      *
@@ -62,6 +114,47 @@ public interface IRegionDirectoryService {
      */
     List<RegionDTO> getByNameBeginning(String nameBeginning) throws RecordNotFoundException;
 
+    /**
+     * Получает страницу списка регионов по началу наименования
+     *
+     * @param nameBeginning Тип: {@link String}. Начало наименования региона, по которому осуществляется поиск в
+     *                      репозитории
+     * @param after         Тип: {@link RegionPageToken}. Токен, полученный с предыдущей страницей, или {@code null}
+     *                      для первой страницы
+     * @param limit         Тип: int. Размер страницы
+     * @return Возвращает страницу не более чем из {@code limit} объектов трансфера данных, следующих за предыдущей
+     * страницей в порядке сортировки по наименованию, и токен следующей страницы
+     * @throws RecordNotFoundException Исключение, генерируемое, если первая страница пуста
+     */
+    RegionPage getByNameBeginningPage(String nameBeginning, RegionPageToken after, int limit)
+            throws RecordNotFoundException;
+
+    /**
+     * Получает список регионов, наименование которых похоже на данное с точностью до опечаток. Поиск выполняется по
+     * триграммному индексу в памяти без обращения к репозиторию
+     *
+     * @param name        Тип: {@link String}. Наименование или начало наименования региона, возможно с опечатками, без
+     *                    учета регистра, буквы ё и разделителей
+     * @param maxDistance Тип: int. Максимальное расстояние редактирования
+     * @param limit       Тип: int. Максимальное количество возвращаемых регионов
+     * @return Возвращает список не более чем из {@code limit} объектов трансфера данных в порядке возрастания
+     * расстояния редактирования
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике похожих регионов
+     */
+    List<RegionDTO> getByFuzzyName(String name, int maxDistance, int limit) throws RecordNotFoundException;
+
+    /**
+     * Получает список регионов, наименование которых содержит все слова запроса. Поиск выполняется пересечением
+     * списков инвертированного индекса слов в памяти без обращения к репозиторию
+     *
+     * @param query Тип: {@link String}. Слова наименования региона в любом порядке, без учета регистра, буквы ё и
+     *              разделителей
+     * @return Возвращает список объектов трансфера данных, отсортированный по наименованию
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике регионов, наименование
+     *                                 которых содержит все слова запроса
+     */
+    List<RegionDTO> getByNameTokens(String query) throws RecordNotFoundException;
+
     /**
      * Получает список регионов по сокращенному наименованию
      *
@@ -74,6 +167,20 @@ public interface IRegionDirectoryService {
      */
     List<RegionDTO> getByShortName(String shortName) throws RecordNotFoundException;
 
+    /**
+     * Получает страницу списка регионов по сокращенному наименованию
+     *
+     * @param shortName Тип: {@link String}. Сокращенное наименование региона, по которому осуществляется поиск в
+     *                  репозитории
+     * @param after     Тип: {@link RegionPageToken}. Токен, полученный с предыдущей страницей, или {@code null} для
+     *                  первой страницы
+     * @param limit     Тип: int. Размер страницы
+     * @return Возвращает страницу не более чем из {@code limit} объектов трансфера данных, следующих за предыдущей
+     * страницей в порядке сортировки по наименованию, и токен следующей страницы
+     * @throws RecordNotFoundException Исключение, генерируемое, если первая страница пуста
+     */
+    RegionPage getByShortNamePage(String shortName, RegionPageToken after, int limit) throws RecordNotFoundException;
+
     /**
      * Обновляет регион по идентификатору
      *
@@ -96,4 +203,24 @@ public interface IRegionDirectoryService {
      *                                 идентификатором
      */
     void deleteById(String id) throws RecordNotFoundException;
+
+    /**
+     * Получает текущую версию справочника
+     *
+     * @return Возвращает версию справочника, номер которой увеличивается при каждом изменении
+     */
+    RegionDirectoryVersion getVersion();
+
+    /**
+     * Получает изменения справочника после данной версии журнала изменений
+     * <p>
+     * Журнал ведется в базе данных и сохраняется между перезапусками, поэтому номера его версий не совпадают с номером
+     * версии справочника из {@link #getVersion()}
+     *
+     * @param since Тип: long. Номер версии журнала, полученный при предыдущей синхронизации, или 0 для получения всех
+     *              регионов
+     * @return Возвращает последнее значение или надгробие каждого региона, измененного после данной версии, и номер
+     * версии журнала, по которую включены изменения
+     */
+    RegionChanges getChangesSince(long since);
 }
@@ -0,0 +1,137 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent.Operation;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.repository.IReactiveRegionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Неблокирующий сервис справочника регионов
+ * <p>
+ * Все запросы выполняются в реактивном репозитории без кэширования, поэтому ни один поток не ожидает завершения
+ * запроса. Операции записи увеличивают версию справочника и публикуют {@link RegionDirectoryChangedEvent}, как и
+ * {@link RegionDirectoryService}. Используется только в реактивном веб-приложении.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRegionDirectoryService implements IReactiveRegionDirectoryService {
+
+    private final IReactiveRegionRepository regionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Текущая версия справочника. Отсчет начинается со времени запуска, чтобы версии не повторялись после
+     * перезапуска сервера
+     */
+    private final AtomicReference<RegionDirectoryVersion> version;
+
+    ReactiveRegionDirectoryService(IReactiveRegionRepository regionRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.regionRepository = regionRepository;
+        this.eventPublisher = eventPublisher;
+
+        long startedAt = System.currentTimeMillis();
+        this.version = new AtomicReference<>(new RegionDirectoryVersion(startedAt, startedAt));
+    }
+
+    @Override
+    public Mono<Void> add(RegionDTO regionDTO) {
+        Region region = new Region(regionDTO);
+
+        return regionRepository.save(region)
+                .onErrorMap(DuplicateKeyException.class, ex -> duplicateId(regionDTO.id))
+                .then(Mono.<Void>fromRunnable(() -> publishChange(Operation.ADDED, regionDTO.id, region.toDTO())));
+    }
+
+    @Override
+    public Flux<RegionDTO> getAll() {
+        return requireFound(regionRepository.getAll());
+    }
+
+    @Override
+    public Mono<RegionDTO> getById(String id) {
+        return regionRepository.getById(id)
+                .map(Region::toDTO)
+                .switchIfEmpty(Mono.error(() -> new RecordNotFoundException("id = '" + id + "'")));
+    }
+
+    @Override
+    public Flux<RegionDTO> getByName(String name) {
+        return requireFound(regionRepository.getByName(name), "name = '" + name + "'");
+    }
+
+    @Override
+    public Flux<RegionDTO> getByNameBeginning(String nameBeginning) {
+        return requireFound(regionRepository.getByNameBeginning(nameBeginning),
+                "name beginning = '" + nameBeginning + "'");
+    }
+
+    @Override
+    public Flux<RegionDTO> getByShortName(String shortName) {
+        return requireFound(regionRepository.getByShortName(shortName), "short name = '" + shortName + "'");
+    }
+
+    @Override
+    public Mono<Void> updateById(String id, RegionDTO regionDTO) {
+        Region region = new Region(regionDTO);
+
+        return regionRepository.updateById(id, region)
+                .onErrorMap(DuplicateKeyException.class, ex -> duplicateId(regionDTO.id))
+                .flatMap(updatedRows -> updatedRows != 0
+                        ? Mono.<Void>fromRunnable(() -> publishChange(Operation.UPDATED, id, region.toDTO()))
+                        : Mono.<Void>error(new RecordNotFoundException("id = '" + id + "'")));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return regionRepository.deleteById(id)
+                .flatMap(deletedRows -> deletedRows != 0
+                        ? Mono.<Void>fromRunnable(() -> publishChange(Operation.DELETED, id, null))
+                        : Mono.<Void>error(new RecordNotFoundException("id = '" + id + "'")));
+    }
+
+    /**
+     * Увеличивает версию справочника и публикует событие его изменения
+     *
+     * @param operation Тип: {@link Operation}. Вид операции, изменившей справочник
+     * @param id        Тип: {@link String}. Идентификатор измененного региона до изменения
+     * @param region    Тип: {@link RegionDTO}. Новое значение региона или {@code null}, если регион удален
+     */
+    private void publishChange(Operation operation, String id, RegionDTO region) {
+        RegionDirectoryVersion changed = version.updateAndGet(current -> current.next(System.currentTimeMillis()));
+
+        eventPublisher.publishEvent(new RegionDirectoryChangedEvent(changed.getNumber(), operation, id, region));
+    }
+
+    /**
+     * Конвертирует регионы в объекты трансфера данных, проверяя, что найден хотя бы один
+     *
+     * @param regions Тип: {@link Flux Flux&lt;Region&gt;}. Издатель найденных регионов
+     * @param params  Тип: varargs<String>. Описание условия поиска для сообщения об ошибке
+     * @return Возвращает издатель объектов трансфера данных, завершающийся ошибкой {@link RecordNotFoundException},
+     * если ни один регион не найден. Ошибка возникает до первого элемента, поэтому ответ еще не начат
+     */
+    private static Flux<RegionDTO> requireFound(Flux<Region> regions, String... params) {
+        return regions.map(Region::toDTO)
+                .switchIfEmpty(Flux.error(() -> params.length != 0
+                        ? new RecordNotFoundException(params[0])
+                        : new RecordNotFoundException()));
+    }
+
+    private static DuplicateUniqueValuesException duplicateId(String id) {
+        return new DuplicateUniqueValuesException(Collections.singletonMap("id", id));
+    }
+}
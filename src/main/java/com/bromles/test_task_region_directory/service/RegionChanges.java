@@ -0,0 +1,46 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.RegionChange;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Изменения справочника регионов после версии журнала изменений
+ */
+public final class RegionChanges {
+
+    private final long version;
+
+    private final List<RegionChange> changes;
+
+    /**
+     * Конструктор результата со всеми параметрами
+     *
+     * @param version Тип: long. Номер версии журнала, по которую включены изменения
+     * @param changes Тип: {@link List List&lt;RegionChange&gt;}. Последние изменения каждого региона в порядке
+     *                возрастания версий
+     */
+    public RegionChanges(long version, List<RegionChange> changes) {
+        this.version = version;
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Получает номер версии журнала, по которую включены изменения
+     *
+     * @return Возвращает номер версии, передаваемый при следующем запросе изменений
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Получает изменения регионов
+     *
+     * @return Возвращает неизменяемый список последних изменений каждого региона в порядке возрастания версий
+     */
+    public List<RegionChange> getChanges() {
+        return changes;
+    }
+}
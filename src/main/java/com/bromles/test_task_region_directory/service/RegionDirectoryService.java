@@ -2,41 +2,153 @@ package com.bromles.test_task_region_directory.service;
 
 import com.bromles.test_task_region_directory.entity.Region;
 import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent.Operation;
 import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
 import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.index.RegionCodeTable;
+import com.bromles.test_task_region_directory.index.RegionNameNormalizer;
+import com.bromles.test_task_region_directory.index.RegionSnapshot;
 import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.bromles.test_task_region_directory.repository.RegionBatchWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Сервис справочника регионов
+ * <p>
+ * В режиме чтения из снимка ({@code region-directory.snapshot.enabled=true}) запросы на чтение обслуживаются
+ * неизменяемым снимком справочника в памяти, который атомарно заменяется после каждой операции записи. При
+ * выключенном режиме все запросы выполняются в репозитории.
+ * <p>
+ * Поиск по идентификатору и по списку идентификаторов в этом режиме выполняется напрямую в таблице кодов снимка
+ * {@link RegionCodeTable} без обращения к кэшам: индексация массива по коду дешевле вычисления хэша и обращения к
+ * кэшу. Исключение об отсутствии региона создается один раз на код и затем переиспользуется.
+ * <p>
+ * Результаты поиска по идентификатору, наименованию, сокращенному наименованию и началу наименования кэшируются.
+ * Поиск по наименованию и сокращенному наименованию не учитывает регистр, букву ё и разделители: снимок и
+ * репозиторий ищут по ключу {@link RegionNameNormalizer}, и он же является ключом кэша.
+ * Операции записи вытесняют из кэшей только записи, затронутые старыми или новыми значениями измененного региона,
+ * увеличивают версию справочника и публикуют {@link RegionDirectoryChangedEvent}. Поиск по списку идентификаторов
+ * без снимка получает закэшированные регионы одним обращением к кэшу, а остальные - одним запросом к репозиторию.
+ * <p>
+ * Нечеткий поиск по наименованию и поиск по словам наименования всегда выполняются по триграммному и
+ * инвертированному индексам снимка, который загружается при первом таком запросе и далее изменяется операциями
+ * записи и в режиме чтения из репозитория.
+ * <p>
+ * Без снимка для идентификаторов, по которым регион не найден, кэшируется заранее созданное исключение без
+ * трассировки стека, поэтому повторный поиск отсутствующего региона не обращается к репозиторию. Запись вытесняется
+ * при добавлении региона с этим идентификатором. Поиск по идентификатору обращается к кэшам напрямую, а не через
+ * {@link Cacheable}, которая оборачивает исключение каждого промаха в исключения кэша с трассировкой стека.
  */
-// TODO исправить кэширование возвращаемых значений
-
 @Service
-@CacheConfig(cacheNames = {"regionDTOsById"})
+@CacheConfig(cacheNames = {RegionDirectoryService.REGION_DTOS_BY_ID_CACHE})
 public class RegionDirectoryService implements IRegionDirectoryService {
 
+    /**
+     * Название кэша регионов по идентификатору
+     */
+    public static final String REGION_DTOS_BY_ID_CACHE = "regionDTOsById";
+
+    /**
+     * Название кэша списков регионов по наименованию
+     */
+    public static final String REGION_DTOS_BY_NAME_CACHE = "regionDTOsByName";
+
+    /**
+     * Название кэша списков регионов по сокращенному наименованию
+     */
+    public static final String REGION_DTOS_BY_SHORT_NAME_CACHE = "regionDTOsByShortName";
+
+    /**
+     * Название кэша списков регионов по началу наименования
+     */
+    public static final String REGION_DTOS_BY_NAME_BEGINNING_CACHE = "regionDTOsByNameBeginning";
+
+    /**
+     * Название кэша заранее созданных исключений об отсутствии регионов по идентификатору
+     */
+    public static final String MISSING_REGION_IDS_CACHE = "missingRegionIds";
+
+    /**
+     * Ключ кэшей поиска по наименованию и сокращенному наименованию: ключ поиска {@link RegionNameNormalizer}
+     * первого аргумента, поэтому запросы, отличающиеся регистром, буквой ё или разделителями, используют одну запись
+     */
+    private static final String NORMALIZED_NAME_KEY =
+            "T(com.bromles.test_task_region_directory.index.RegionNameNormalizer).normalize(#root.args[0])";
+
     private final IRegionRepository regionRepository;
 
-    RegionDirectoryService(IRegionRepository regionRepository) {
+    private final RegionBatchWriter regionBatchWriter;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean snapshotReadsEnabled;
+
+    /**
+     * Блокировка, упорядочивающая операции записи и замену снимка справочника
+     */
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * Заранее созданные исключения об отсутствии региона по ячейкам таблицы кодов {@link RegionCodeTable}.
+     * Заполняются при первом промахе. Исключение зависит только от кода и неизменяемо, поэтому гонка при заполнении
+     * безопасна
+     */
+    private final RecordNotFoundException[] missingCodeExceptions =
+            new RecordNotFoundException[RegionCodeTable.SIZE];
+
+    /**
+     * Текущий снимок справочника. Загружается при первом обращении
+     */
+    private volatile RegionSnapshot snapshot;
+
+    /**
+     * Текущая версия справочника. Отсчет начинается со времени запуска, чтобы версии не повторялись после
+     * перезапуска сервера
+     */
+    private volatile RegionDirectoryVersion version;
+
+    RegionDirectoryService(IRegionRepository regionRepository, RegionBatchWriter regionBatchWriter,
+                           CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                           @Value("${region-directory.snapshot.enabled:true}") boolean snapshotReadsEnabled) {
         this.regionRepository = regionRepository;
+        this.regionBatchWriter = regionBatchWriter;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.snapshotReadsEnabled = snapshotReadsEnabled;
+
+        long startedAt = System.currentTimeMillis();
+        this.version = new RegionDirectoryVersion(startedAt, startedAt);
     }
 
     @Override
-    @CachePut(key = "#root.args[0].id")
     public void add(RegionDTO regionDTO) throws DuplicateUniqueValuesException {
+        Region region = new Region(regionDTO);
+
+        writeLock.lock();
         try {
-            regionRepository.save(new Region(regionDTO));
+            regionRepository.save(region);
+
+            RegionDTO added = region.toDTO();
+
+            updateSnapshot(current -> current.withSaved(region));
+            evictCachedQueries(added);
+            publishChange(Operation.ADDED, added.id, added);
         }
         catch (DuplicateKeyException ex) {
             Map<String, Object> violatedFields = new LinkedHashMap<>();
@@ -45,10 +157,79 @@ public class RegionDirectoryService implements IRegionDirectoryService {
 
             throw new DuplicateUniqueValuesException(violatedFields);
         }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public List<DuplicateUniqueValuesException> addAll(List<RegionDTO> regionDTOs) throws DuplicateUniqueValuesException {
+        List<Region> regions = new ArrayList<>(regionDTOs.size());
+
+        for (RegionDTO regionDTO : regionDTOs) {
+            regions.add(new Region(regionDTO));
+        }
+
+        Set<Integer> rejected;
+
+        writeLock.lock();
+        try {
+            try {
+                rejected = regionBatchWriter.saveAll(regions);
+            }
+            catch (DuplicateKeyException ex) {
+                Map<String, Object> violatedFields = new LinkedHashMap<>();
+                List<String> ids = new ArrayList<>(regionDTOs.size());
+
+                for (RegionDTO regionDTO : regionDTOs) {
+                    ids.add(regionDTO.id);
+                }
+
+                violatedFields.put("id", ids);
+
+                throw new DuplicateUniqueValuesException(violatedFields);
+            }
+
+            if (rejected.size() < regions.size()) {
+                reloadSnapshot();
+            }
+
+            for (int i = 0; i < regions.size(); i++) {
+                if (!rejected.contains(i)) {
+                    RegionDTO added = regions.get(i).toDTO();
+
+                    evictCachedQueries(added);
+                    publishChange(Operation.ADDED, added.id, added);
+                }
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+
+        List<DuplicateUniqueValuesException> results = new ArrayList<>(regionDTOs.size());
+
+        for (int i = 0; i < regionDTOs.size(); i++) {
+            if (rejected.contains(i)) {
+                Map<String, Object> violatedFields = new LinkedHashMap<>();
+
+                violatedFields.put("id", regionDTOs.get(i).id);
+
+                results.add(new DuplicateUniqueValuesException(violatedFields));
+            }
+            else {
+                results.add(null);
+            }
+        }
+
+        return results;
     }
 
     @Override
     public List<RegionDTO> getAll() throws RecordNotFoundException {
+        if (snapshotReadsEnabled) {
+            return requireFound(getSnapshot().getAll());
+        }
 
         List<Region> regions = regionRepository.getAll();
 
@@ -56,46 +237,246 @@ public class RegionDirectoryService implements IRegionDirectoryService {
     }
 
     @Override
-    @Cacheable
+    public RegionPage getAllPage(RegionPageToken after, int limit) throws RecordNotFoundException {
+        String afterName = after != null ? after.getName() : null;
+        Integer afterKey = after != null ? after.getKey() : null;
+
+        List<Region> regions = snapshotReadsEnabled
+                ? getSnapshot().getPage(afterName, afterKey, limit + 1)
+                : regionRepository.getPage(afterName, afterKey, limit + 1);
+
+        return requireFound(RegionPage.of(regions, limit), after);
+    }
+
+    @Override
+    public int streamAll(Consumer<RegionDTO> consumer) {
+        if (snapshotReadsEnabled) {
+            List<RegionDTO> regionDTOs = getSnapshot().getAll();
+
+            regionDTOs.forEach(consumer);
+
+            return regionDTOs.size();
+        }
+
+        int[] count = {0};
+
+        regionRepository.streamAll(context -> {
+            consumer.accept(context.getResultObject().toDTO());
+            count[0] = context.getResultCount();
+        });
+
+        return count[0];
+    }
+
+    @Override
+    public boolean isHeldInMemory() {
+        return snapshotReadsEnabled;
+    }
+
+    @Override
     public RegionDTO getById(String id) throws RecordNotFoundException {
+        if (snapshotReadsEnabled) {
+            RegionDTO regionDTO = getSnapshot().getById(id);
+
+            if (regionDTO != null) {
+                return regionDTO;
+            }
+
+            throw missingCode(id);
+        }
+
+        Cache byId = cacheManager.getCache(REGION_DTOS_BY_ID_CACHE);
+        Cache missingIds = cacheManager.getCache(MISSING_REGION_IDS_CACHE);
+
+        if (byId != null) {
+            RegionDTO cached = byId.get(id, RegionDTO.class);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        if (missingIds != null) {
+            RecordNotFoundException missing = missingIds.get(id, RecordNotFoundException.class);
+
+            if (missing != null) {
+                throw missing;
+            }
+        }
+
+        RegionDirectoryVersion searchedIn = version;
         Region region = regionRepository.getById(id);
+        RegionDTO regionDTO = region != null ? region.toDTO() : null;
+
+        if (regionDTO != null) {
+            if (byId != null) {
+                byId.put(id, regionDTO);
+            }
 
-        if (region != null) {
-            return region.toDTO();
+            return regionDTO;
         }
-        else {
-            throw new RecordNotFoundException("id = '" + id + "'");
+
+        RecordNotFoundException missing = new RecordNotFoundException("id = '" + id + "'");
+
+        if (missingIds != null) {
+            missingIds.put(id, missing);
+
+            if (version != searchedIn) {
+                missingIds.evict(id);
+            }
         }
+
+        throw missing;
     }
 
     @Override
+    public RegionLookup getByIds(Collection<String> ids) {
+        Set<String> requestedIds = new LinkedHashSet<>(ids);
+        List<RegionDTO> regionDTOs = new ArrayList<>(requestedIds.size());
+        List<String> missingIds = new ArrayList<>();
+
+        if (snapshotReadsEnabled) {
+            RegionSnapshot current = getSnapshot();
+
+            for (String id : requestedIds) {
+                RegionDTO regionDTO = current.getById(id);
+
+                if (regionDTO != null) {
+                    regionDTOs.add(regionDTO);
+                }
+                else {
+                    missingIds.add(id);
+                }
+            }
+
+            return new RegionLookup(regionDTOs, missingIds);
+        }
+
+        Cache byId = cacheManager.getCache(REGION_DTOS_BY_ID_CACHE);
+        Map<String, RegionDTO> found = getCachedByIds(byId, requestedIds);
+        List<String> misses = new ArrayList<>();
+
+        for (String id : requestedIds) {
+            if (!found.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Region region : regionRepository.getByIds(misses)) {
+                RegionDTO regionDTO = region.toDTO();
+
+                found.put(regionDTO.id, regionDTO);
+
+                if (byId != null) {
+                    byId.put(regionDTO.id, regionDTO);
+                }
+            }
+        }
+
+        for (String id : requestedIds) {
+            RegionDTO regionDTO = found.get(id);
+
+            if (regionDTO != null) {
+                regionDTOs.add(regionDTO);
+            }
+            else {
+                missingIds.add(id);
+            }
+        }
+
+        return new RegionLookup(regionDTOs, missingIds);
+    }
+
+    @Override
+    @Cacheable(cacheNames = REGION_DTOS_BY_NAME_CACHE, key = NORMALIZED_NAME_KEY, sync = true)
     public List<RegionDTO> getByName(String name) throws RecordNotFoundException {
+        if (snapshotReadsEnabled) {
+            return requireFound(getSnapshot().getByName(name), "name = '" + name + "'");
+        }
+
         List<Region> regions = regionRepository.getByName(name);
 
         return convertRegionsToDTOs(regions, "name = '" + name + "'");
     }
 
     @Override
+    @Cacheable(cacheNames = REGION_DTOS_BY_NAME_BEGINNING_CACHE, sync = true)
     public List<RegionDTO> getByNameBeginning(String nameBeginning) throws RecordNotFoundException {
+        if (snapshotReadsEnabled) {
+            return requireFound(getSnapshot().getByNameBeginning(nameBeginning),
+                    "name beginning = '" + nameBeginning + "'");
+        }
+
         List<Region> regions = regionRepository.getByNameBeginning(nameBeginning);
 
         return convertRegionsToDTOs(regions, "name beginning = '" + nameBeginning + "'");
     }
 
     @Override
+    public RegionPage getByNameBeginningPage(String nameBeginning, RegionPageToken after, int limit)
+            throws RecordNotFoundException {
+        String afterName = after != null ? after.getName() : null;
+        Integer afterKey = after != null ? after.getKey() : null;
+
+        List<Region> regions = snapshotReadsEnabled
+                ? getSnapshot().getByNameBeginningPage(nameBeginning, afterName, afterKey, limit + 1)
+                : regionRepository.getByNameBeginningPage(nameBeginning, afterName, afterKey, limit + 1);
+
+        return requireFound(RegionPage.of(regions, limit), after, "name beginning = '" + nameBeginning + "'");
+    }
+
+    @Override
+    public List<RegionDTO> getByFuzzyName(String name, int maxDistance, int limit) throws RecordNotFoundException {
+        return requireFound(getSnapshot().getByFuzzyName(name, maxDistance, limit), "fuzzy name = '" + name + "'");
+    }
+
+    @Override
+    public List<RegionDTO> getByNameTokens(String query) throws RecordNotFoundException {
+        return requireFound(getSnapshot().getByNameTokens(query), "name words = '" + query + "'");
+    }
+
+    @Override
+    @Cacheable(cacheNames = REGION_DTOS_BY_SHORT_NAME_CACHE, key = NORMALIZED_NAME_KEY, sync = true)
     public List<RegionDTO> getByShortName(String shortName) throws RecordNotFoundException {
+        if (snapshotReadsEnabled) {
+            return requireFound(getSnapshot().getByShortName(shortName), "short name = '" + shortName + "'");
+        }
+
         List<Region> regions = regionRepository.getByShortName(shortName);
 
         return convertRegionsToDTOs(regions, "short name = '" + shortName + "'");
     }
 
     @Override
-    @CachePut(key = "#root.args[0]")
+    public RegionPage getByShortNamePage(String shortName, RegionPageToken after, int limit)
+            throws RecordNotFoundException {
+        String afterName = after != null ? after.getName() : null;
+        Integer afterKey = after != null ? after.getKey() : null;
+
+        List<Region> regions = snapshotReadsEnabled
+                ? getSnapshot().getByShortNamePage(shortName, afterName, afterKey, limit + 1)
+                : regionRepository.getByShortNamePage(shortName, afterName, afterKey, limit + 1);
+
+        return requireFound(RegionPage.of(regions, limit), after, "short name = '" + shortName + "'");
+    }
+
+    @Override
     public void updateById(String id, RegionDTO regionDTO) throws RecordNotFoundException, DuplicateUniqueValuesException {
+        Region region = new Region(regionDTO);
         int updatedRows;
 
+        writeLock.lock();
         try {
-            updatedRows = regionRepository.updateById(id, new Region(regionDTO));
+            RegionDTO previous = getStoredById(id);
+
+            updatedRows = regionRepository.updateById(id, region);
+
+            if (updatedRows != 0) {
+                updateSnapshot(current -> current.withUpdated(id, region));
+                evictCachedQueries(previous, region.toDTO());
+                publishChange(Operation.UPDATED, id, region.toDTO());
+            }
         }
         catch (DuplicateKeyException ex) {
             Map<String, Object> violatedFields = new LinkedHashMap<>();
@@ -104,6 +485,9 @@ public class RegionDirectoryService implements IRegionDirectoryService {
 
             throw new DuplicateUniqueValuesException(violatedFields);
         }
+        finally {
+            writeLock.unlock();
+        }
 
         if (updatedRows == 0) {
             throw new RecordNotFoundException("id = '" + id + "'");
@@ -111,15 +495,194 @@ public class RegionDirectoryService implements IRegionDirectoryService {
     }
 
     @Override
-    @CacheEvict(key = "#root.args[0]")
     public void deleteById(String id) throws RecordNotFoundException {
-        int deletedRows = regionRepository.deleteById(id);
+        int deletedRows;
+
+        writeLock.lock();
+        try {
+            RegionDTO previous = getStoredById(id);
+
+            deletedRows = regionRepository.deleteById(id);
+
+            if (deletedRows != 0) {
+                updateSnapshot(current -> current.withDeleted(id));
+                evictCachedQueries(previous != null ? previous : new RegionDTO(id, null, null));
+                publishChange(Operation.DELETED, id, null);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
 
         if (deletedRows == 0) {
             throw new RecordNotFoundException("id = '" + id + "'");
         }
     }
 
+    @Override
+    public RegionDirectoryVersion getVersion() {
+        return version;
+    }
+
+    @Override
+    public RegionChanges getChangesSince(long since) {
+        long until = regionRepository.getLastChangeVersion();
+
+        if (since >= until) {
+            return new RegionChanges(until, Collections.emptyList());
+        }
+
+        return new RegionChanges(until, regionRepository.getChangesSince(since, until));
+    }
+
+    /**
+     * Увеличивает версию справочника, вытесняет идентификатор нового или измененного региона из кэша отсутствующих
+     * идентификаторов и публикует событие изменения справочника. Вызывается под блокировкой записи, поэтому события
+     * публикуются в порядке возрастания версий
+     * <p>
+     * Идентификатор вытесняется после увеличения версии: чтение, не нашедшее регион до изменения, сравнивает версию
+     * после записи в кэш и вытесняет свою запись само, если версия изменилась.
+     *
+     * @param operation Тип: {@link Operation}. Вид операции, изменившей справочник
+     * @param id        Тип: {@link String}. Идентификатор измененного региона до изменения
+     * @param region    Тип: {@link RegionDTO}. Новое значение региона или {@code null}, если регион удален
+     */
+    private void publishChange(Operation operation, String id, RegionDTO region) {
+        RegionDirectoryVersion changed = version.next(System.currentTimeMillis());
+
+        version = changed;
+
+        Cache missingIds = cacheManager.getCache(MISSING_REGION_IDS_CACHE);
+
+        if (missingIds != null && region != null) {
+            missingIds.evict(region.id);
+        }
+
+        eventPublisher.publishEvent(new RegionDirectoryChangedEvent(changed.getNumber(), operation, id, region));
+    }
+
+    /**
+     * Получает сохраненное значение региона перед его изменением. Вызывается под блокировкой записи. Если снимок
+     * справочника загружен, значение берется из него без обращения к репозиторию
+     *
+     * @param id Тип: {@link String}. Идентификатор региона
+     * @return Возвращает объект трансфера данных региона или {@code null}, если регион не найден
+     */
+    private RegionDTO getStoredById(String id) {
+        RegionSnapshot current = snapshot;
+
+        if (snapshotReadsEnabled && current != null) {
+            return current.getById(id);
+        }
+
+        Region region = regionRepository.getById(id);
+
+        return region != null ? region.toDTO() : null;
+    }
+
+    /**
+     * Вытесняет из кэшей результаты запросов, на которые влияют данные регионы: запись по идентификатору, списки по
+     * наименованию и сокращенному наименованию, а также списки по каждому началу наименования
+     *
+     * @param affected Тип: varargs<RegionDTO>. Старые и новые значения измененных регионов. Значения {@code null}
+     *                 и пустые поля пропускаются
+     */
+    private void evictCachedQueries(RegionDTO... affected) {
+        Cache byId = cacheManager.getCache(REGION_DTOS_BY_ID_CACHE);
+        Cache byName = cacheManager.getCache(REGION_DTOS_BY_NAME_CACHE);
+        Cache byShortName = cacheManager.getCache(REGION_DTOS_BY_SHORT_NAME_CACHE);
+        Cache byNameBeginning = cacheManager.getCache(REGION_DTOS_BY_NAME_BEGINNING_CACHE);
+
+        for (RegionDTO regionDTO : affected) {
+            if (regionDTO == null) {
+                continue;
+            }
+
+            if (byId != null && regionDTO.id != null) {
+                byId.evict(regionDTO.id);
+            }
+
+            if (byShortName != null && regionDTO.shortName != null) {
+                byShortName.evict(RegionNameNormalizer.normalize(regionDTO.shortName));
+            }
+
+            if (regionDTO.name != null) {
+                if (byName != null) {
+                    byName.evict(RegionNameNormalizer.normalize(regionDTO.name));
+                }
+
+                if (byNameBeginning != null) {
+                    for (int length = 1; length <= regionDTO.name.length(); length++) {
+                        byNameBeginning.evict(regionDTO.name.substring(0, length));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Получает исключение об отсутствии региона с данным идентификатором, созданное при первом промахе по этому
+     * коду
+     *
+     * @param id Тип: {@link String}. Идентификатор отсутствующего региона
+     * @return Возвращает исключение об отсутствии региона. Для идентификаторов, не являющихся кодом из 2 или 3 цифр,
+     * создается новое исключение
+     */
+    private RecordNotFoundException missingCode(String id) {
+        int slot = RegionCodeTable.slotOf(id);
+
+        if (slot < 0) {
+            return new RecordNotFoundException("id = '" + id + "'");
+        }
+
+        RecordNotFoundException missing = missingCodeExceptions[slot];
+
+        if (missing == null) {
+            missing = new RecordNotFoundException("id = '" + id + "'");
+            missingCodeExceptions[slot] = missing;
+        }
+
+        return missing;
+    }
+
+    /**
+     * Получает из кэша регионов по идентификатору все закэшированные регионы с данными идентификаторами. Для кэша
+     * Caffeine выполняется одно обращение к кэшу, для остальных - по обращению на идентификатор
+     *
+     * @param byId Тип: {@link Cache}. Кэш регионов по идентификатору или {@code null}, если он не зарегистрирован
+     * @param ids  Тип: {@link Collection Collection&lt;String&gt;}. Идентификаторы искомых регионов
+     * @return Возвращает изменяемые пары, состоящие из идентификатора и найденного в кэше региона
+     */
+    private static Map<String, RegionDTO> getCachedByIds(Cache byId, Collection<String> ids) {
+        Map<String, RegionDTO> cached = new HashMap<>();
+
+        if (byId == null) {
+            return cached;
+        }
+
+        if (byId.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache) {
+            Map<?, ?> present = ((com.github.benmanes.caffeine.cache.Cache<?, ?>) byId.getNativeCache())
+                    .getAllPresent(ids);
+
+            for (Map.Entry<?, ?> entry : present.entrySet()) {
+                if (entry.getValue() instanceof RegionDTO) {
+                    cached.put((String) entry.getKey(), (RegionDTO) entry.getValue());
+                }
+            }
+        }
+        else {
+            for (String id : ids) {
+                Cache.ValueWrapper value = byId.get(id);
+
+                if (value != null && value.get() instanceof RegionDTO) {
+                    cached.put(id, (RegionDTO) value.get());
+                }
+            }
+        }
+
+        return cached;
+    }
+
     /**
      * Конвертирует сущности в объекты трансфера данных
      *
@@ -129,8 +692,7 @@ public class RegionDirectoryService implements IRegionDirectoryService {
      * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в репозитории региона с искомыми
      *                                 параметрами
      */
-
-    private List<RegionDTO> convertRegionsToDTOs(List<Region> regions, String... params) throws RecordNotFoundException {
+    List<RegionDTO> convertRegionsToDTOs(List<Region> regions, String... params) throws RecordNotFoundException {
         if (!regions.isEmpty()) {
             List<RegionDTO> regionDTOs = new ArrayList<>();
 
@@ -143,20 +705,119 @@ public class RegionDirectoryService implements IRegionDirectoryService {
             return regionDTOs;
         }
         else {
-            switch (params.length) {
-                case 0: {
-                    throw new RecordNotFoundException();
-                }
-                case 1: {
-                    throw new RecordNotFoundException(params[0]);
-                }
-                case 2: {
-                    throw new RecordNotFoundException(params[0] + " and " + params[1]);
-                }
-                default: {
-                    throw new IllegalArgumentException("You can pass only 0, 1 or 2 field names");
+            throw generateRecordNotFoundException(params);
+        }
+    }
+
+    /**
+     * Проверяет, что в справочнике найдены регионы с искомыми параметрами
+     *
+     * @param regionDTOs Тип: {@link List List<RegionDTO>}. Найденные объекты трансфера данных
+     * @param params     Тип: varargs<String>. Дополнительные параметры для генерации исключения
+     * @return Возвращает данный список объектов трансфера данных, если он не пуст
+     * @throws RecordNotFoundException Исключение, генерируемое при отсутствии в справочнике региона с искомыми
+     *                                 параметрами
+     */
+    private List<RegionDTO> requireFound(List<RegionDTO> regionDTOs, String... params) throws RecordNotFoundException {
+        if (!regionDTOs.isEmpty()) {
+            return regionDTOs;
+        }
+        else {
+            throw generateRecordNotFoundException(params);
+        }
+    }
+
+    /**
+     * Проверяет, что первая страница регионов с искомыми параметрами не пуста. Пустые последующие страницы
+     * допускаются, так как регионы могли быть удалены после получения токена
+     *
+     * @param page   Тип: {@link RegionPage}. Найденная страница
+     * @param after  Тип: {@link RegionPageToken}. Токен предыдущей страницы или {@code null} для первой страницы
+     * @param params Тип: varargs<String>. Дополнительные параметры для генерации исключения
+     * @return Возвращает данную страницу
+     * @throws RecordNotFoundException Исключение, генерируемое, если первая страница пуста
+     */
+    private RegionPage requireFound(RegionPage page, RegionPageToken after, String... params)
+            throws RecordNotFoundException {
+        if (after != null || !page.getRegionDTOs().isEmpty()) {
+            return page;
+        }
+        else {
+            throw generateRecordNotFoundException(params);
+        }
+    }
+
+    /**
+     * Генерирует исключение об отсутствии записей с искомыми параметрами
+     *
+     * @param params Тип: varargs<String>. Названия и значения полей, по которым осуществлялся поиск
+     * @return Возвращает исключение, содержащее описание параметров поиска
+     */
+    private static RecordNotFoundException generateRecordNotFoundException(String... params) {
+        switch (params.length) {
+            case 0: {
+                return new RecordNotFoundException();
+            }
+            case 1: {
+                return new RecordNotFoundException(params[0]);
+            }
+            case 2: {
+                return new RecordNotFoundException(params[0] + " and " + params[1]);
+            }
+            default: {
+                throw new IllegalArgumentException("You can pass only 0, 1 or 2 field names");
+            }
+        }
+    }
+
+    /**
+     * Получает текущий снимок справочника, загружая его из репозитория при первом обращении
+     *
+     * @return Возвращает текущий снимок справочника
+     */
+    private RegionSnapshot getSnapshot() {
+        RegionSnapshot current = snapshot;
+
+        if (current == null) {
+            writeLock.lock();
+            try {
+                current = snapshot;
+
+                if (current == null) {
+                    current = RegionSnapshot.of(regionRepository.getAll());
+                    snapshot = current;
                 }
             }
+            finally {
+                writeLock.unlock();
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Перезагружает текущий снимок справочника из репозитория целиком. Вызывается под блокировкой записи после
+     * изменений, которые невозможно применить к снимку по одному региону
+     */
+    private void reloadSnapshot() {
+        if (snapshot != null) {
+            snapshot = RegionSnapshot.of(regionRepository.getAll());
+        }
+    }
+
+    /**
+     * Заменяет текущий снимок справочника измененным. Вызывается под блокировкой записи после успешного изменения
+     * репозитория. Если снимок еще не загружен, он будет загружен целиком при первом чтении
+     *
+     * @param change Тип: {@link UnaryOperator UnaryOperator<RegionSnapshot>}. Функция, строящая новый снимок по
+     *               текущему
+     */
+    private void updateSnapshot(UnaryOperator<RegionSnapshot> change) {
+        RegionSnapshot current = snapshot;
+
+        if (current != null) {
+            snapshot = change.apply(current);
         }
     }
 
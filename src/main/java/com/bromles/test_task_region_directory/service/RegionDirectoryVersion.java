@@ -0,0 +1,61 @@
+package com.bromles.test_task_region_directory.service;
+
+/**
+ * Версия справочника регионов
+ * <p>
+ * Номер версии монотонно возрастает при каждом изменении справочника и используется в ETag для условных GET-запросов.
+ */
+public final class RegionDirectoryVersion {
+
+    private final long number;
+
+    private final long lastModified;
+
+    /**
+     * Конструктор версии справочника со всеми параметрами
+     *
+     * @param number       Тип: long. Номер версии справочника
+     * @param lastModified Тип: long. Время последнего изменения справочника в миллисекундах от начала эпохи
+     */
+    public RegionDirectoryVersion(long number, long lastModified) {
+        this.number = number;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Создает следующую версию справочника
+     *
+     * @param lastModified Тип: long. Время изменения справочника в миллисекундах от начала эпохи
+     * @return Возвращает версию со следующим номером
+     */
+    public RegionDirectoryVersion next(long lastModified) {
+        return new RegionDirectoryVersion(number + 1, Math.max(lastModified, this.lastModified));
+    }
+
+    /**
+     * Получает номер версии справочника
+     *
+     * @return Возвращает номер версии справочника
+     */
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Получает время последнего изменения справочника
+     *
+     * @return Возвращает время последнего изменения справочника в миллисекундах от начала эпохи
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Генерирует слабый ETag, соответствующий версии справочника
+     *
+     * @return Возвращает значение заголовка ETag
+     */
+    public String toETag() {
+        return "W/\"" + number + "\"";
+    }
+}
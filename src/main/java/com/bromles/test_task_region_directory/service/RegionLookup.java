@@ -0,0 +1,47 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат поиска регионов по списку идентификаторов
+ */
+public final class RegionLookup {
+
+    private final List<RegionDTO> regionDTOs;
+
+    private final List<String> missingIds;
+
+    /**
+     * Конструктор результата со всеми параметрами
+     *
+     * @param regionDTOs Тип: {@link List List&lt;RegionDTO&gt;}. Найденные регионы в порядке запрошенных
+     *                   идентификаторов
+     * @param missingIds Тип: {@link List List&lt;String&gt;}. Запрошенные идентификаторы, регионы с которыми не
+     *                   найдены
+     */
+    public RegionLookup(List<RegionDTO> regionDTOs, List<String> missingIds) {
+        this.regionDTOs = Collections.unmodifiableList(regionDTOs);
+        this.missingIds = Collections.unmodifiableList(missingIds);
+    }
+
+    /**
+     * Получает найденные регионы
+     *
+     * @return Возвращает неизменяемый список объектов трансфера данных в порядке запрошенных идентификаторов
+     */
+    public List<RegionDTO> getRegionDTOs() {
+        return regionDTOs;
+    }
+
+    /**
+     * Получает идентификаторы, регионы с которыми не найдены
+     *
+     * @return Возвращает неизменяемый список идентификаторов в порядке запроса
+     */
+    public List<String> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,69 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Страница списка регионов с токеном продолжения
+ */
+public final class RegionPage {
+
+    private final List<RegionDTO> regionDTOs;
+
+    private final RegionPageToken nextPageToken;
+
+    /**
+     * Конструктор страницы со всеми параметрами
+     *
+     * @param regionDTOs    Тип: {@link List List&lt;RegionDTO&gt;}. Регионы страницы
+     * @param nextPageToken Тип: {@link RegionPageToken}. Токен следующей страницы или {@code null}, если страница
+     *                      последняя
+     */
+    public RegionPage(List<RegionDTO> regionDTOs, RegionPageToken nextPageToken) {
+        this.regionDTOs = Collections.unmodifiableList(regionDTOs);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Создает страницу по результату запроса, выбравшего на один регион больше размера страницы
+     *
+     * @param regions Тип: {@link List List&lt;Region&gt;}. Не более {@code limit + 1} регионов в порядке сортировки
+     *                по наименованию и первичному ключу
+     * @param limit   Тип: int. Размер страницы
+     * @return Возвращает страницу из первых {@code limit} регионов с токеном следующей страницы, если регионов больше
+     */
+    public static RegionPage of(List<Region> regions, int limit) {
+        int size = Math.min(regions.size(), limit);
+        List<RegionDTO> regionDTOs = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            regionDTOs.add(regions.get(i).toDTO());
+        }
+
+        RegionPageToken nextPageToken = regions.size() > limit ? RegionPageToken.after(regions.get(limit - 1)) : null;
+
+        return new RegionPage(regionDTOs, nextPageToken);
+    }
+
+    /**
+     * Получает регионы страницы
+     *
+     * @return Возвращает неизменяемый список объектов трансфера данных
+     */
+    public List<RegionDTO> getRegionDTOs() {
+        return regionDTOs;
+    }
+
+    /**
+     * Получает токен следующей страницы
+     *
+     * @return Возвращает токен следующей страницы или {@code null}, если страница последняя
+     */
+    public RegionPageToken getNextPageToken() {
+        return nextPageToken;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Токен продолжения постраничной выдачи регионов
+ * <p>
+ * Хранит наименование и первичный ключ последнего региона страницы, после которого начинается следующая страница в
+ * порядке сортировки по наименованию и первичному ключу. Для клиента токен непрозрачен и передается в виде строки
+ * base64url.
+ */
+public final class RegionPageToken {
+
+    private static final char SEPARATOR = ':';
+
+    private final String name;
+
+    private final int key;
+
+    /**
+     * Конструктор токена со всеми параметрами
+     *
+     * @param name Тип: {@link String}. Наименование последнего региона страницы
+     * @param key  Тип: int. Первичный ключ последнего региона страницы
+     */
+    public RegionPageToken(String name, int key) {
+        this.name = name;
+        this.key = key;
+    }
+
+    /**
+     * Создает токен страницы, следующей за данным регионом
+     *
+     * @param region Тип: {@link Region}. Последний регион страницы
+     * @return Возвращает токен следующей страницы
+     */
+    public static RegionPageToken after(Region region) {
+        return new RegionPageToken(region.getName(), region.getKey());
+    }
+
+    /**
+     * Разбирает токен страницы из строки
+     *
+     * @param pageToken Тип: {@link String}. Строковое представление токена, полученное от {@link #encode()}
+     * @return Возвращает разобранный токен
+     * @throws InvalidPageTokenException Исключение, генерируемое, если строка не является токеном страницы
+     */
+    public static RegionPageToken decode(String pageToken) throws InvalidPageTokenException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+
+            if (separator < 1) {
+                throw new InvalidPageTokenException(pageToken);
+            }
+
+            return new RegionPageToken(decoded.substring(separator + 1),
+                    Integer.parseInt(decoded.substring(0, separator)));
+        }
+        catch (IllegalArgumentException ex) {
+            throw new InvalidPageTokenException(pageToken);
+        }
+    }
+
+    /**
+     * Получает строковое представление токена
+     *
+     * @return Возвращает токен в виде строки base64url без дополнения
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + String.valueOf(SEPARATOR) + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Получает наименование последнего региона предыдущей страницы
+     *
+     * @return Возвращает наименование региона
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Получает первичный ключ последнего региона предыдущей страницы
+     *
+     * @return Возвращает первичный ключ региона
+     */
+    public int getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,150 @@
+package com.bromles.test_task_region_directory.storage;
+
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Планировщик контрольных точек рабочей базы данных в памяти
+ * <p>
+ * Сохраняет контрольную точку в фоновом потоке с заданным интервалом, если с момента предыдущей точки справочник
+ * изменялся, и при штатной остановке приложения. При аварийном завершении теряются изменения, сделанные после
+ * последней контрольной точки. Изменения, внесенные в базу данных в обход сервиса справочника, например, через
+ * консоль H2, сохраняются вместе со следующим изменением справочника или при остановке.
+ */
+public class H2CheckpointScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(H2CheckpointScheduler.class);
+
+    private final H2CheckpointStorage storage;
+
+    private final DataSource dataSource;
+
+    private final Duration interval;
+
+    /**
+     * Количество изменений справочника с момента запуска
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Количество изменений справочника, вошедших в последнюю контрольную точку
+     */
+    private volatile long checkpointedChanges;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Конструктор планировщика со всеми параметрами
+     *
+     * @param storage    Тип: {@link H2CheckpointStorage}. Файл, в который сохраняются контрольные точки
+     * @param dataSource Тип: {@link DataSource}. Рабочая база данных
+     * @param interval   Тип: {@link Duration}. Интервал между контрольными точками
+     */
+    public H2CheckpointScheduler(H2CheckpointStorage storage, DataSource dataSource, Duration interval) {
+        this.storage = storage;
+        this.dataSource = dataSource;
+        this.interval = interval;
+    }
+
+    /**
+     * Обрабатывает событие изменения справочника, отмечая необходимость новой контрольной точки
+     *
+     * @param event Тип: {@link RegionDirectoryChangedEvent}. Событие изменения справочника
+     */
+    @EventListener
+    public void onDirectoryChanged(RegionDirectoryChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Сохраняет контрольную точку, если справочник изменялся с момента предыдущей
+     *
+     * @param force Тип: boolean. Сохранить контрольную точку независимо от наличия изменений
+     */
+    public void checkpoint(boolean force) {
+        long observedChanges = changes.get();
+
+        if (!force && observedChanges == checkpointedChanges) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        storage.checkpoint(dataSource);
+        checkpointedChanges = observedChanges;
+
+        log.debug("Checkpoint written in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "h2-checkpoint");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        long period = interval.toMillis();
+        executor.scheduleWithFixedDelay(this::scheduledCheckpoint, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        executor = null;
+        checkpoint(true);
+
+        log.info("Final checkpoint written");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Получает фазу жизненного цикла
+     *
+     * @return Возвращает фазу, останавливаемую после веб-сервера, чтобы последняя контрольная точка включала
+     * изменения из завершающихся запросов
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+
+    private void scheduledCheckpoint() {
+        try {
+            checkpoint(false);
+        }
+        catch (RuntimeException ex) {
+            log.error("Unable to write checkpoint", ex);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bromles.test_task_region_directory.storage;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Файл базы данных H2, в который сохраняются контрольные точки рабочей базы данных в памяти
+ * <p>
+ * Контрольная точка записывается в отдельный временный файл базы данных, который после закрытия атомарно заменяет
+ * основной файл. Поэтому сбой во время записи контрольной точки не повреждает предыдущую.
+ */
+public class H2CheckpointStorage {
+
+    private static final String DATABASE_FILE_EXTENSION = ".mv.db";
+
+    private static final String TEMPORARY_SUFFIX = ".checkpoint";
+
+    private final Path file;
+
+    private final String username;
+
+    private final String password;
+
+    /**
+     * Конструктор хранилища со всеми параметрами
+     *
+     * @param file     Тип: {@link String}. Путь к файлу базы данных без расширения {@code .mv.db}
+     * @param username Тип: {@link String}. Имя пользователя базы данных
+     * @param password Тип: {@link String}. Пароль пользователя базы данных
+     */
+    public H2CheckpointStorage(String file, String username, String password) {
+        this.file = Paths.get(file).toAbsolutePath().normalize();
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Проверяет наличие сохраненной базы данных
+     *
+     * @return Возвращает {@code true}, если файл базы данных существует
+     */
+    public boolean exists() {
+        return Files.exists(databaseFile(file));
+    }
+
+    /**
+     * Загружает содержимое файла базы данных в рабочую базу данных
+     *
+     * @param target Тип: {@link DataSource}. Рабочая база данных. Не должна содержать загружаемых таблиц
+     * @return Возвращает {@code true}, если файл базы данных существует и был загружен
+     */
+    public boolean load(DataSource target) {
+        if (!exists()) {
+            return false;
+        }
+
+        try (Connection source = openFile(file);
+             Connection connection = target.getConnection()) {
+            copy(source, connection);
+        }
+        catch (SQLException ex) {
+            throw new IllegalStateException("Unable to load database from " + databaseFile(file), ex);
+        }
+
+        return true;
+    }
+
+    /**
+     * Сохраняет контрольную точку рабочей базы данных в файл
+     *
+     * @param source Тип: {@link DataSource}. Рабочая база данных
+     */
+    public synchronized void checkpoint(DataSource source) {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+
+        try {
+            Files.createDirectories(file.getParent());
+            Files.deleteIfExists(databaseFile(temporary));
+
+            try (Connection connection = source.getConnection();
+                 Connection target = openFile(temporary)) {
+                copy(connection, target);
+
+                try (Statement statement = target.createStatement()) {
+                    statement.execute("SHUTDOWN");
+                }
+            }
+
+            Files.move(databaseFile(temporary), databaseFile(file),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException("Unable to write checkpoint to " + databaseFile(file), ex);
+        }
+        catch (SQLException ex) {
+            throw new IllegalStateException("Unable to write checkpoint to " + databaseFile(file), ex);
+        }
+    }
+
+    /**
+     * Копирует схему и данные одной базы данных в другую
+     * <p>
+     * Команда {@code SCRIPT} выполняется одним запросом, поэтому копия соответствует одному состоянию исходной базы.
+     *
+     * @param source Тип: {@link Connection}. Соединение с исходной базой данных
+     * @param target Тип: {@link Connection}. Соединение с базой данных, в которую копируется содержимое
+     * @throws SQLException Исключение, генерируемое при ошибке чтения или записи
+     */
+    private static void copy(Connection source, Connection target) throws SQLException {
+        try (Statement script = source.createStatement();
+             ResultSet statements = script.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS");
+             Statement statement = target.createStatement()) {
+            while (statements.next()) {
+                statement.execute(statements.getString(1));
+            }
+        }
+    }
+
+    private Connection openFile(Path path) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + path + ";MODE=MySQL", username, password);
+    }
+
+    private static Path databaseFile(Path path) {
+        return path.resolveSibling(path.getFileName() + DATABASE_FILE_EXTENSION);
+    }
+}
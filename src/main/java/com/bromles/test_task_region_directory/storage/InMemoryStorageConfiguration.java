@@ -0,0 +1,79 @@
+package com.bromles.test_task_region_directory.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Конфигурация хранения базы данных справочника в памяти
+ * <p>
+ * Включается свойством {@code region-directory.storage.mode=memory}. Рабочая база данных создается в памяти и до
+ * выполнения скриптов инициализации схемы заполняется из файла базы данных, если он существует. Далее содержимое
+ * базы периодически и при остановке приложения сохраняется в тот же файл.
+ */
+@Configuration
+@EnableConfigurationProperties(RegionStorageProperties.class)
+@ConditionalOnProperty(name = "region-directory.storage.mode", havingValue = "memory")
+public class InMemoryStorageConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStorageConfiguration.class);
+
+    /**
+     * Создает хранилище контрольных точек
+     *
+     * @param storageProperties    Тип: {@link RegionStorageProperties}. Настройки хранения
+     * @param dataSourceProperties Тип: {@link DataSourceProperties}. Настройки источника данных с учетными данными
+     * @return Возвращает хранилище контрольных точек в файле базы данных
+     */
+    @Bean
+    public H2CheckpointStorage checkpointStorage(RegionStorageProperties storageProperties,
+                                                 DataSourceProperties dataSourceProperties) {
+        return new H2CheckpointStorage(storageProperties.getFile(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    /**
+     * Создает рабочую базу данных в памяти, заполненную из файла базы данных
+     *
+     * @param storageProperties    Тип: {@link RegionStorageProperties}. Настройки хранения
+     * @param dataSourceProperties Тип: {@link DataSourceProperties}. Настройки источника данных
+     * @param checkpointStorage    Тип: {@link H2CheckpointStorage}. Хранилище, из которого загружается база данных
+     * @return Возвращает источник данных рабочей базы данных
+     */
+    @Bean
+    public DataSource dataSource(RegionStorageProperties storageProperties, DataSourceProperties dataSourceProperties,
+                                 H2CheckpointStorage checkpointStorage) {
+        DataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .url(storageProperties.getMemoryUrl())
+                .build();
+
+        long start = System.nanoTime();
+
+        if (checkpointStorage.load(dataSource)) {
+            log.info("Database loaded into memory from {} in {} ms", storageProperties.getFile(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        return dataSource;
+    }
+
+    /**
+     * Создает планировщик контрольных точек
+     *
+     * @param storageProperties Тип: {@link RegionStorageProperties}. Настройки хранения
+     * @param checkpointStorage Тип: {@link H2CheckpointStorage}. Хранилище контрольных точек
+     * @param dataSource        Тип: {@link DataSource}. Рабочая база данных
+     * @return Возвращает планировщик, запускаемый вместе с контекстом приложения
+     */
+    @Bean
+    public H2CheckpointScheduler checkpointScheduler(RegionStorageProperties storageProperties,
+                                                     H2CheckpointStorage checkpointStorage, DataSource dataSource) {
+        return new H2CheckpointScheduler(checkpointStorage, dataSource, storageProperties.getCheckpointInterval());
+    }
+}
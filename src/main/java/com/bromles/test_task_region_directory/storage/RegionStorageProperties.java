@@ -0,0 +1,135 @@
+package com.bromles.test_task_region_directory.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки хранения базы данных справочника регионов
+ */
+@ConfigurationProperties(prefix = "region-directory.storage")
+public class RegionStorageProperties {
+
+    /**
+     * Режим хранения базы данных
+     */
+    private Mode mode = Mode.FILE;
+
+    /**
+     * Путь к файлу базы данных H2 без расширения {@code .mv.db}, из которого база загружается при запуске и в который
+     * сохраняются контрольные точки в режиме {@link Mode#MEMORY}
+     */
+    private String file = "./data/db";
+
+    /**
+     * Адрес рабочей базы данных в памяти
+     */
+    private String memoryUrl = "jdbc:h2:mem:region-directory;MODE=MySQL;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1";
+
+    /**
+     * Интервал между контрольными точками
+     */
+    private Duration checkpointInterval = Duration.ofSeconds(30);
+
+    /**
+     * Получает режим хранения
+     *
+     * @return Возвращает режим хранения базы данных
+     * @see #setMode(Mode)
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Сохраняет режим хранения
+     *
+     * @param mode Тип: {@link Mode}. Режим хранения базы данных
+     * @see #getMode()
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Получает путь к файлу базы данных
+     *
+     * @return Возвращает путь к файлу базы данных без расширения
+     * @see #setFile(String)
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Сохраняет путь к файлу базы данных
+     *
+     * @param file Тип: {@link String}. Путь к файлу базы данных без расширения {@code .mv.db}
+     * @see #getFile()
+     */
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    /**
+     * Получает адрес рабочей базы данных в памяти
+     *
+     * @return Возвращает JDBC URL базы данных в памяти
+     * @see #setMemoryUrl(String)
+     */
+    public String getMemoryUrl() {
+        return memoryUrl;
+    }
+
+    /**
+     * Сохраняет адрес рабочей базы данных в памяти
+     *
+     * @param memoryUrl Тип: {@link String}. JDBC URL базы данных в памяти. База не должна закрываться при закрытии
+     *                  последнего соединения
+     * @see #getMemoryUrl()
+     */
+    public void setMemoryUrl(String memoryUrl) {
+        this.memoryUrl = memoryUrl;
+    }
+
+    /**
+     * Получает интервал между контрольными точками
+     *
+     * @return Возвращает интервал между контрольными точками
+     * @see #setCheckpointInterval(Duration)
+     */
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Сохраняет интервал между контрольными точками
+     *
+     * @param checkpointInterval Тип: {@link Duration}. Интервал между контрольными точками. Должен быть
+     *                           положительным
+     * @see #getCheckpointInterval()
+     */
+    public void setCheckpointInterval(Duration checkpointInterval) {
+        if (checkpointInterval.isZero() || checkpointInterval.isNegative()) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Режим хранения базы данных
+     */
+    public enum Mode {
+
+        /**
+         * База данных хранится в файле, каждое изменение записывается на диск
+         */
+        FILE,
+
+        /**
+         * База данных работает в памяти, загружается из файла при запуске и периодически сохраняется в него
+         */
+        MEMORY
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Содержит компоненты хранения базы данных справочника в памяти с сохранением контрольных точек на диск
+ */
+package com.bromles.test_task_region_directory.storage;
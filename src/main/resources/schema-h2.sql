@@ -9,4 +9,25 @@ CREATE TABLE IF NOT EXISTS regions
     INDEX (id),
     INDEX (name),
     INDEX(short_name)
-);
\ No newline at end of file
+);
+
+ALTER TABLE regions ADD COLUMN IF NOT EXISTS normalized_name varchar(255)
+    AS TRIM(REGEXP_REPLACE(LOWER(REPLACE(REPLACE(name, 'Ё', 'Е'), 'ё', 'е')), '[^\p{L}\p{Nd}]+', ' '));
+
+ALTER TABLE regions ADD COLUMN IF NOT EXISTS normalized_short_name varchar(3)
+    AS TRIM(REGEXP_REPLACE(LOWER(REPLACE(REPLACE(short_name, 'Ё', 'Е'), 'ё', 'е')), '[^\p{L}\p{Nd}]+', ' '));
+
+CREATE INDEX IF NOT EXISTS regions_normalized_name ON regions (normalized_name);
+
+CREATE INDEX IF NOT EXISTS regions_normalized_short_name ON regions (normalized_short_name);
+
+CREATE TABLE IF NOT EXISTS region_changes
+(
+    version bigint     not null auto_increment,
+    id      varchar(3) not null,
+    primary key (version),
+    INDEX (id)
+);
+
+INSERT INTO region_changes (id)
+SELECT id FROM regions WHERE NOT EXISTS (SELECT 1 FROM region_changes) ORDER BY key;
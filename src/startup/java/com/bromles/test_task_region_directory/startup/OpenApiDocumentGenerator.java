@@ -0,0 +1,81 @@
+package com.bromles.test_task_region_directory.startup;
+
+import com.bromles.test_task_region_directory.TestTaskApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Генератор документа OpenAPI, отдаваемого в профиле быстрого запуска
+ * <p>
+ * Запускает приложение на случайном порту со встроенной H2 в памяти, получает документ, построенный springdoc, и
+ * сохраняет его в файл. Адрес сервера, на котором был построен документ, удаляется, поэтому Swagger UI отправляет
+ * запросы на адрес, с которого документ был загружен. При сборке с профилем {@code fast-startup} документ записывается в
+ * {@code target/classes/static/openapi.json} до упаковки приложения.
+ */
+public final class OpenApiDocumentGenerator {
+
+    private OpenApiDocumentGenerator() {
+    }
+
+    /**
+     * Точка запуска генератора
+     *
+     * @param args Тип: {@link String String[]}. Путь к файлу документа
+     * @throws Exception Исключение, генерируемое при ошибке запуска приложения, получения или записи документа
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpenApiDocumentGenerator <output file>");
+        }
+
+        Path output = Paths.get(args[0]);
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestTaskApplication.class)
+                .logStartupInfo(false)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:openapi;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.platform=h2",
+                        "spring.datasource.initialization-mode=always",
+                        "logging.level.root=warn")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v3/api-docs"))
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                    .send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("OpenAPI document request failed with status " +
+                        response.statusCode());
+            }
+
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            ObjectNode document = (ObjectNode) objectMapper.readTree(response.body());
+            document.remove("servers");
+
+            objectMapper.writeValue(output.toFile(), document);
+
+            System.out.println("OpenAPI document written to " + output.toAbsolutePath());
+        }
+    }
+}
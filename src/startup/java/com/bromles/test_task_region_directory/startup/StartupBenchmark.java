@@ -0,0 +1,220 @@
+package com.bromles.test_task_region_directory.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк времени запуска приложения
+ * <p>
+ * Несколько раз запускает собранное приложение в отдельном процессе в каждой из конфигураций: исполняемый архив без
+ * профиля, профиль {@code fast-startup} без архива классов и с архивом классов AppCDS. Время готовности измеряется от
+ * запуска процесса до первого ответа эндпоинта получения региона по идентификатору. После готовности проверяется, что
+ * поиск по идентификатору и запрос изменений справочника отвечают успешно, то есть схема базы данных обновлена.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * <ul>
+ *     <li>{@code startup.runs} - количество запусков в каждой конфигурации</li>
+ *     <li>{@code startup.exec-jar} - путь к исполняемому архиву приложения</li>
+ *     <li>{@code startup.jar} - путь к архиву приложения с зависимостями в {@code lib}</li>
+ *     <li>{@code startup.cds-archive} - путь к архиву классов AppCDS</li>
+ *     <li>{@code startup.report} - путь к JSON-отчету</li>
+ * </ul>
+ * Вывод каждого процесса сохраняется в {@code target/startup-<конфигурация>.log}.
+ */
+public final class StartupBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private static final long POLL_INTERVAL_MS = 5;
+
+    /**
+     * Запросы, успешный ответ на которые проверяется после готовности каждого запуска
+     */
+    private static final List<String> VERIFIED_PATHS = List.of("/v1/regions/77", "/v1/regions/changes?since=0");
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Точка запуска бенчмарка
+     *
+     * @param args Тип: {@link String String[]}. Не используются, параметры задаются системными свойствами
+     * @throws Exception Исключение, генерируемое при ошибке запуска приложения или записи отчета
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        String execJar = System.getProperty("startup.exec-jar", "target/testTaskRegionDirectory-1.0-exec.jar");
+        String jar = System.getProperty("startup.jar", "target/testTaskRegionDirectory-1.0.jar");
+        String cdsArchive = System.getProperty("startup.cds-archive", "target/app-cds.jsa");
+        Path report = Paths.get(System.getProperty("startup.report", "target/startup-report.json"));
+
+        if (runs < 1) {
+            throw new IllegalArgumentException("startup.runs must be positive");
+        }
+
+        Map<String, List<String>> configurations = new LinkedHashMap<>();
+        configurations.put("default", List.of("-jar", execJar));
+        configurations.put("fast-startup", List.of("-jar", jar, "--spring.profiles.active=fast-startup"));
+        configurations.put("fast-startup-cds", List.of("-XX:SharedArchiveFile=" + cdsArchive, "-Xshare:auto",
+                "-jar", jar, "--spring.profiles.active=fast-startup"));
+
+        StartupBenchmark benchmark = new StartupBenchmark();
+        Map<String, Object> results = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> configuration : configurations.entrySet()) {
+            long[] readyTimesMs = new long[runs];
+
+            for (int i = 0; i < runs; i++) {
+                readyTimesMs[i] = benchmark.measure(configuration.getKey(), configuration.getValue());
+            }
+
+            results.put(configuration.getKey(), describe(readyTimesMs));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("runs", runs);
+        result.put("configurations", results);
+
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), result);
+
+        print(results);
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    /**
+     * Запускает приложение и измеряет время до первого ответа
+     *
+     * @param name      Тип: {@link String}. Название конфигурации
+     * @param arguments Тип: {@link List List&lt;String&gt;}. Аргументы виртуальной машины и приложения
+     * @return Возвращает время готовности в миллисекундах
+     * @throws IOException          Исключение, генерируемое при ошибке запуска процесса
+     * @throws InterruptedException Исключение, генерируемое при прерывании ожидания
+     */
+    private long measure(String name, List<String> arguments) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+
+        Path log = Paths.get("target", "startup-" + name + ".log");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/regions/77"))
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        try {
+            long deadline = started + READY_TIMEOUT.toNanos();
+            long readyTimeMs = -1;
+
+            while (readyTimeMs < 0 && System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with code " + process.exitValue() +
+                            ", see " + log.toAbsolutePath());
+                }
+
+                try {
+                    httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    readyTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                }
+                catch (IOException ex) {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                }
+            }
+
+            if (readyTimeMs < 0) {
+                throw new IllegalStateException("Application was not ready in " + READY_TIMEOUT.toSeconds() + " s");
+            }
+
+            verify(port, log);
+
+            return readyTimeMs;
+        }
+        finally {
+            process.destroy();
+
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что запущенное приложение успешно отвечает на запросы, зависящие от схемы базы данных
+     *
+     * @param port Тип: int. Порт приложения
+     * @param log  Тип: {@link Path}. Путь к выводу процесса приложения
+     * @throws IOException          Исключение, генерируемое при ошибке отправки запроса
+     * @throws InterruptedException Исключение, генерируемое при прерывании ожидания ответа
+     */
+    private void verify(int port, Path log) throws IOException, InterruptedException {
+        for (String path : VERIFIED_PATHS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .GET()
+                    .build();
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+
+            if (status != 200) {
+                throw new IllegalStateException("GET " + path + " answered with status " + status +
+                        ", see " + log.toAbsolutePath());
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, Object> describe(long[] readyTimesMs) {
+        long[] sorted = readyTimesMs.clone();
+        Arrays.sort(sorted);
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("min-ms", sorted[0]);
+        description.put("median-ms", sorted[sorted.length / 2]);
+        description.put("mean-ms", Arrays.stream(sorted).average().orElse(0));
+        description.put("max-ms", sorted[sorted.length - 1]);
+        description.put("samples-ms", readyTimesMs);
+
+        return description;
+    }
+
+    private static void print(Map<String, Object> results) {
+        System.out.printf("%-18s %10s %10s %10s %10s%n", "configuration", "min ms", "median ms", "mean ms", "max ms");
+
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> description = (Map<String, Object>) entry.getValue();
+
+            System.out.printf("%-18s %10d %10d %10.1f %10d%n", entry.getKey(), description.get("min-ms"),
+                    description.get("median-ms"), description.get("mean-ms"), description.get("max-ms"));
+        }
+    }
+}
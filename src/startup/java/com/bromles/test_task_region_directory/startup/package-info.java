@@ -0,0 +1,4 @@
+/**
+ * Содержит инструменты профиля быстрого запуска: генератор документа OpenAPI и бенчмарк времени запуска
+ */
+package com.bromles.test_task_region_directory.startup;
@@ -0,0 +1,27 @@
+package com.bromles.test_task_region_directory.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static com.bromles.test_task_region_directory.service.RegionDirectoryService.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "region-directory.cache.default-spec=maximumSize=1000,refreshAfterWrite=1m,recordStats")
+class CacheConfigurationIntegrationTests {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void refreshingDefaultSpecIsDroppedForCachesWithoutLoader() {
+        Cache missingIds = cacheManager.getCache(MISSING_REGION_IDS_CACHE);
+        missingIds.put("99", "missing");
+
+        assertEquals("missing", missingIds.get("99", String.class));
+        assertNotNull(cacheManager.getCache("unregistered"));
+        assertNotNull(cacheManager.getCache(REGION_DTOS_BY_ID_CACHE));
+    }
+}
@@ -0,0 +1,91 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.service.IReactiveRegionDirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveRegionDirectoryController.class)
+class ReactiveRegionDirectoryControllerUnitTest {
+
+    private static final String v1RegionsMapping = "/v1/regions";
+
+    @Autowired
+    private WebTestClient webClient;
+
+    @MockBean
+    private IReactiveRegionDirectoryService regionDirectoryService;
+
+    @Test
+    void getAll_RegionsExist_ReturnStatusOK_andReturnJsonArray() {
+        when(regionDirectoryService.getAll()).thenReturn(Flux.just(
+                new RegionDTO("77", "город Москва", "МСК"),
+                new RegionDTO("78", "город Санкт-Петербург", "СПБ")));
+
+        webClient.get().uri(v1RegionsMapping)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].id").isEqualTo("78");
+    }
+
+    @Test
+    void getById_RegionNotExists_ReturnStatusNotFound() {
+        when(regionDirectoryService.getById("77"))
+                .thenReturn(Mono.error(new RecordNotFoundException("id = '77'")));
+
+        webClient.get().uri(v1RegionsMapping + "/77")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("No records found by id = '77'");
+    }
+
+    @Test
+    void getById_InvalidId_ReturnStatusBadRequest() {
+        webClient.get().uri(v1RegionsMapping + "/000")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(regionDirectoryService);
+    }
+
+    @Test
+    void add_DuplicateId_ReturnStatusBadRequest_andReturnViolatedFields() {
+        when(regionDirectoryService.add(any()))
+                .thenReturn(Mono.error(new DuplicateUniqueValuesException(Collections.singletonMap("id", "77"))));
+
+        webClient.post().uri(v1RegionsMapping)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RegionDTO("77", "город Москва", "МСК"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.violated-fields.id").isEqualTo("77");
+    }
+
+    @Test
+    void deleteById_RegionExists_ReturnStatusOK() {
+        when(regionDirectoryService.deleteById("77")).thenReturn(Mono.empty());
+
+        webClient.delete().uri(v1RegionsMapping + "/77")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.successful").isEqualTo(true);
+    }
+}
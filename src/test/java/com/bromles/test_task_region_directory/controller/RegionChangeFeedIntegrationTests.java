@@ -0,0 +1,66 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent.Operation;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-feed;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.platform=h2"
+})
+class RegionChangeFeedIntegrationTests {
+
+    @Autowired
+    private RegionChangeFeed changeFeed;
+
+    @Autowired
+    private IRegionDirectoryService regionDirectoryService;
+
+    @Test
+    void writesThroughServiceAreDeliveredToSubscribers() throws Exception {
+        BlockingQueue<RegionDirectoryChangedEvent> received = new LinkedBlockingQueue<>();
+        long version = regionDirectoryService.getVersion().getNumber();
+        RegionChangeFeed.Subscription subscription = changeFeed.subscribe(Long.toString(version),
+                new RegionChangeFeed.Subscriber() {
+
+                    @Override
+                    public void send(RegionDirectoryChangedEvent event) {
+                        received.add(event);
+                    }
+
+                    @Override
+                    public void reset(long version) {
+                    }
+
+                    @Override
+                    public void complete() {
+                    }
+                });
+
+        try {
+            regionDirectoryService.add(new RegionDTO("98", "Тестовая область", "ТСТ"));
+            regionDirectoryService.deleteById("98");
+
+            RegionDirectoryChangedEvent added = received.poll(10, TimeUnit.SECONDS);
+            RegionDirectoryChangedEvent deleted = received.poll(10, TimeUnit.SECONDS);
+
+            assertEquals(Operation.ADDED, added.getOperation());
+            assertEquals("98", added.getId());
+            assertEquals(version + 1, added.getVersion());
+            assertEquals(Operation.DELETED, deleted.getOperation());
+        }
+        finally {
+            subscription.cancel();
+        }
+    }
+}
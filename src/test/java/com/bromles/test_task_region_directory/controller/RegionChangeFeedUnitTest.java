@@ -0,0 +1,135 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent;
+import com.bromles.test_task_region_directory.event.RegionDirectoryChangedEvent.Operation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionChangeFeedUnitTest {
+
+    private final RegionChangeFeed changeFeed = new RegionChangeFeed(100, 4, 3, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.close();
+    }
+
+    @Test
+    void subscribe_LastEventIdInHistory_ReplayMissedChanges_andContinueWithNewChanges() throws Exception {
+        publish(101, 102, 103);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        changeFeed.subscribe("101", subscriber);
+        publish(104);
+
+        subscriber.await(3);
+
+        assertEquals(List.of("102", "103", "104"), subscriber.received);
+    }
+
+    @Test
+    void subscribe_LastEventIdEvictedOrUnknown_SendReset() throws Exception {
+        publish(101, 102, 103, 104, 105, 106);
+
+        RecordingSubscriber evicted = new RecordingSubscriber();
+        RecordingSubscriber unknown = new RecordingSubscriber();
+        changeFeed.subscribe("101", evicted);
+        changeFeed.subscribe("not-a-version", unknown);
+
+        evicted.await(1);
+        unknown.await(1);
+
+        assertEquals(List.of("reset 106"), evicted.received);
+        assertEquals(List.of("reset 106"), unknown.received);
+    }
+
+    @Test
+    void onDirectoryChanged_SlowSubscriberBufferOverflow_CompleteSlowSubscriber_andDeliverToOthers() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber slow = new RecordingSubscriber() {
+            @Override
+            public void send(RegionDirectoryChangedEvent event) {
+                sending.countDown();
+                awaitQuietly(release);
+                super.send(event);
+            }
+        };
+        RecordingSubscriber fast = new RecordingSubscriber();
+
+        changeFeed.subscribe(null, slow);
+        changeFeed.subscribe(null, fast);
+        publish(101);
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+        fast.await(1);
+
+        for (long version = 102; version <= 106; version++) {
+            publish(version);
+            fast.await(1);
+        }
+
+        assertEquals(List.of("101", "102", "103", "104", "105", "106"), fast.received);
+
+        release.countDown();
+
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("101", "102", "103", "104"), slow.received);
+        assertEquals(1, fast.completed.getCount());
+    }
+
+    private void publish(long... versions) {
+        for (long version : versions) {
+            changeFeed.onDirectoryChanged(new RegionDirectoryChangedEvent(version, Operation.UPDATED, "77",
+                    new RegionDTO("77", "город Москва", "МСК")));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSubscriber implements RegionChangeFeed.Subscriber {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        private final Semaphore delivered = new Semaphore(0);
+
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(RegionDirectoryChangedEvent event) {
+            received.add(Long.toString(event.getVersion()));
+            delivered.release();
+        }
+
+        @Override
+        public void reset(long version) {
+            received.add("reset " + version);
+            delivered.release();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private void await(int events) throws InterruptedException {
+            assertTrue(delivered.tryAcquire(events, 5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -1,41 +1,84 @@
 package com.bromles.test_task_region_directory.controller;
 
+import com.bromles.test_task_region_directory.entity.RegionChange;
 import com.bromles.test_task_region_directory.entity.RegionDTO;
 import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
 import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.importer.RegionImportFormat;
+import com.bromles.test_task_region_directory.importer.RegionImportReport;
+import com.bromles.test_task_region_directory.importer.RegionImporter;
+import com.bromles.test_task_region_directory.service.RegionChanges;
 import com.bromles.test_task_region_directory.service.RegionDirectoryService;
+import com.bromles.test_task_region_directory.service.RegionDirectoryVersion;
+import com.bromles.test_task_region_directory.service.RegionLookup;
+import com.bromles.test_task_region_directory.service.RegionPage;
+import com.bromles.test_task_region_directory.service.RegionPageToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(RegionDirectoryController.class)
+@Import(RegionDirectoryResponseCache.class)
 public class RegionDirectoryControllerUnitTest {
 
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private RegionDirectoryResponseCache responseCache;
+
     @MockBean
     private RegionDirectoryService regionDirectoryService;
 
+    @MockBean
+    private RegionImporter regionImporter;
+
+    @MockBean
+    private RegionChangeFeed changeFeed;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final String v1RegionsMapping = "/v1/regions";
 
+    private final RegionDirectoryVersion version = new RegionDirectoryVersion(42, 1622505600000L);
+
+    @Before
+    public void resetResponseCacheAndVersion() {
+        responseCache.invalidate();
+
+        when(regionDirectoryService.getVersion()).thenReturn(version);
+        when(regionDirectoryService.isHeldInMemory()).thenReturn(true);
+    }
+
     @Test
     public void add_PostValidRegionDTO_ReturnStatusOK_andReturnRegionDTO() throws Exception {
         RegionDTO regionDTO = new RegionDTO("78", "город Москва", "МСК");
@@ -118,6 +161,76 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(jsonPath("$.message", is("Server supports only application/json")));
     }
 
+    @Test
+    public void addAll_PostValidRegionDTOs_ReturnStatusOk_andReturnResultOfEachRegion() throws Exception {
+        List<RegionDTO> regionDTOs = Arrays.asList(
+                new RegionDTO("78", "город Санкт-Петербург", "СПБ"),
+                new RegionDTO("77", "город Москва", "МСК"));
+
+        Map<String, Object> violatedFields = new LinkedHashMap<>();
+        violatedFields.put("id", "77");
+
+        when(regionDirectoryService.addAll(anyList()))
+                .thenReturn(Arrays.asList(null, new DuplicateUniqueValuesException(violatedFields)));
+
+        String requestBody = objectMapper.writeValueAsString(regionDTOs);
+
+        mvc.perform(
+                post(v1RegionsMapping + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.successful", is(false)))
+                .andExpect(jsonPath("$.added", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.results[0].successful", is(true)))
+                .andExpect(jsonPath("$.results[0].value.id", is("78")))
+                .andExpect(jsonPath("$.results[1].successful", is(false)))
+                .andExpect(jsonPath("$.results[1].message", is("Duplicate primary key or unique index")))
+                .andExpect(jsonPath("$.results[1].violated-fields.id", is("77")));
+    }
+
+    @Test
+    public void addAll_PostEmptyList_ReturnStatusBadRequest_andReturnValidationErrorMessage() throws Exception {
+        mvc.perform(
+                post(v1RegionsMapping + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.errors[0]", is("Batch must contain from 1 to 1000 regions")));
+
+        verify(regionDirectoryService, never()).addAll(anyList());
+    }
+
+    @Test
+    public void importRegions_PostCsv_ReturnStatusOk_andReturnReport() throws Exception {
+        when(regionImporter.importRegions(any(), any(), eq(RegionImportFormat.CSV)))
+                .thenReturn(mock(RegionImportReport.class));
+
+        mvc.perform(
+                post(v1RegionsMapping + "/import")
+                        .contentType("text/csv")
+                        .content("id,name,short_name\n35,Вологодская область,ВОЛ\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.successful", is(true)))
+                .andExpect(jsonPath("$.rejected", is(0)))
+                .andExpect(jsonPath("$.rejected-rows", hasSize(0)));
+
+        verify(regionImporter).importRegions(any(), any(), eq(RegionImportFormat.CSV));
+    }
+
+    @Test
+    public void importRegions_PostPlainText_ReturnStatusUnsupportedMediaType() throws Exception {
+        mvc.perform(
+                post(v1RegionsMapping + "/import")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("35,Вологодская область,ВОЛ"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(regionImporter);
+    }
+
     @Test
     public void getAll_GetNothing_ReturnStatusOk_andReturnRegionDTOs() throws Exception {
         RegionDTO regionDTO = new RegionDTO("78", "город Москва", "МСК");
@@ -136,6 +249,92 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(jsonPath("$[0].shortName", is(regionDTO.shortName)));
     }
 
+    @Test
+    public void getAll_GetNotHeldInMemory_ReturnStatusOk_andReturnStreamedRegionDTOs() throws Exception {
+        List<RegionDTO> allRegions = Arrays.asList(
+                new RegionDTO("77", "город Москва", "МСК"),
+                new RegionDTO("78", "город Санкт-Петербург", "СПБ"));
+
+        when(regionDirectoryService.isHeldInMemory()).thenReturn(false);
+        when(regionDirectoryService.streamAll(any())).thenAnswer(invocation -> {
+            Consumer<RegionDTO> consumer = invocation.getArgument(0);
+            allRegions.forEach(consumer);
+
+            return allRegions.size();
+        });
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is("77")))
+                .andExpect(jsonPath("$[1].name", is("город Санкт-Петербург")));
+
+        verify(regionDirectoryService, never()).getAll();
+    }
+
+    @Test
+    public void getAll_GetNotHeldInMemoryAndNotExisting_ReturnStatusNotFound_andReturnErrorMessage() throws Exception {
+        when(regionDirectoryService.isHeldInMemory()).thenReturn(false);
+        when(regionDirectoryService.streamAll(any())).thenReturn(0);
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)))
+                .andExpect(jsonPath("$.message", is("There are no records")));
+    }
+
+    @Test
+    public void getAll_GetWithGzipAcceptEncoding_ReturnStatusOk_andReturnCompressedRegionDTOs() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("78", "город Москва", "МСК");
+
+        when(regionDirectoryService.getAll()).thenReturn(Collections.singletonList(regionDTO));
+
+        MvcResult result = mvc.perform(
+                get(v1RegionsMapping)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream body = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            RegionDTO[] regionDTOs = objectMapper.readValue(body, RegionDTO[].class);
+
+            assertEquals(1, regionDTOs.length);
+            assertEquals(regionDTO, regionDTOs[0]);
+        }
+    }
+
+    @Test
+    public void getAll_GetWithCurrentETag_ReturnStatusNotModified_andNotQueryService() throws Exception {
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .header(HttpHeaders.IF_NONE_MATCH, version.toETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, version.toETag()));
+
+        verify(regionDirectoryService, never()).getAll();
+    }
+
+    @Test
+    public void getAll_GetWithOutdatedETag_ReturnStatusOk_andReturnETag() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("78", "город Москва", "МСК");
+
+        when(regionDirectoryService.getAll()).thenReturn(Collections.singletonList(regionDTO));
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.toETag()))
+                .andExpect(jsonPath("$[0].id", is(regionDTO.id)));
+    }
+
     @Test
     public void getAll_GetNotExisting_ReturnStatusNotFound_andReturnErrorMessage() throws Exception {
 
@@ -210,6 +409,46 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(jsonPath("$.message", is("No records found by name = '" + name + "'")));
     }
 
+    @Test
+    public void getByFuzzyName_GetNameWithTypos_ReturnStatusOk_andReturnRegionDTOs() throws Exception {
+        String fuzzyName = "Вологодска обл";
+        RegionDTO regionDTO = new RegionDTO("35", "Вологодская область", "ВОЛ");
+
+        when(regionDirectoryService.getByFuzzyName(fuzzyName, 2, 10))
+                .thenReturn(Collections.singletonList(regionDTO));
+
+        mvc.perform(
+                get(v1RegionsMapping + "?fuzzy-name=" + fuzzyName)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(regionDTO.id)));
+    }
+
+    @Test
+    public void getByFuzzyName_GetTooLargeDistance_ReturnStatusBadRequest() throws Exception {
+        mvc.perform(
+                get(v1RegionsMapping + "?fuzzy-name=Москва&max-distance=4")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]", is("Maximum distance must be between 0 and 3")));
+    }
+
+    @Test
+    public void getByNameTokens_GetWords_ReturnStatusOk_andReturnRegionDTOs() throws Exception {
+        String query = "автономный округ";
+        RegionDTO regionDTO = new RegionDTO("89", "Ямало-Ненецкий автономный округ", "ЯНА");
+
+        when(regionDirectoryService.getByNameTokens(query)).thenReturn(Collections.singletonList(regionDTO));
+
+        mvc.perform(
+                get(v1RegionsMapping + "?q=" + query)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(regionDTO.id)));
+    }
+
     @Test
     public void getByNameBeginning_GetValidNameBeginning_ReturnStatusOk_andReturnRegionDTOs() throws Exception {
         RegionDTO regionDTO1 = new RegionDTO("10", "Вологодская область", "ВОЛ");
@@ -276,6 +515,64 @@ public class RegionDirectoryControllerUnitTest {
                         is("No records found by name beginning = '" + nameBeginning + "'")));
     }
 
+    @Test
+    public void getByNameBeginning_GetValidNameBeginningAndLimit_ReturnStatusOk_andReturnLimitedRegionDTOs() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("11", "Волгоградская область", "ВЛГ");
+        String nameBeginning = "Вол";
+        RegionPageToken nextPageToken = new RegionPageToken(regionDTO.name, 11);
+
+        when(regionDirectoryService.getByNameBeginningPage(nameBeginning, null, 1))
+                .thenReturn(new RegionPage(Collections.singletonList(regionDTO), nextPageToken));
+
+        mvc.perform(
+                get(v1RegionsMapping + "?name-beginning=" + nameBeginning + "&limit=1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Page-Token", nextPageToken.encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(regionDTO.id)));
+    }
+
+    @Test
+    public void getByShortName_GetValidShortNameAndPageToken_ReturnStatusOk_andReturnLastPage() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("102", "Республика Башкортостан", "БАШ");
+        RegionPageToken pageToken = new RegionPageToken(regionDTO.name, 3);
+
+        when(regionDirectoryService.getByShortNamePage(eq("БАШ"), any(RegionPageToken.class), eq(1)))
+                .thenReturn(new RegionPage(Collections.singletonList(regionDTO), null));
+
+        mvc.perform(
+                get(v1RegionsMapping + "?short-name=БАШ&limit=1&page-token=" + pageToken.encode())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Page-Token"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(regionDTO.id)));
+    }
+
+    @Test
+    public void getAll_GetIllegalPageToken_ReturnStatusBadRequest_andReturnErrorMessage() throws Exception {
+        mvc.perform(
+                get(v1RegionsMapping + "?page-token=bm90LWEtdG9rZW4")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.message", is("Invalid page token")));
+
+        verify(regionDirectoryService, never()).getAllPage(any(), anyInt());
+    }
+
+    @Test
+    public void getByNameBeginning_GetIllegalLimit_ReturnStatusBadRequest_andReturnValidationErrorMessages() throws Exception {
+
+        mvc.perform(
+                get(v1RegionsMapping + "?name-beginning=Вол&limit=0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)))
+                .andExpect(jsonPath("$.errors[0]", is("Limit must be between 1 and 100")));
+    }
+
     @Test
     public void getByShortName_GetValidShortName_ReturnStatusOk_andReturnRegionDTOs() throws Exception {
         String shortName = "МСК";
@@ -305,7 +602,7 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.errors[0]",
-                        is("Region short name can't be blank and must be 3 Capital Cyrillic letters")));
+                        is("Region short name can't be blank and must be 3 Cyrillic letters")));
     }
 
     @Test
@@ -317,7 +614,7 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status", is(400)))
                 .andExpect(jsonPath("$.errors[0]",
-                        is("Region short name can't be blank and must be 3 Capital Cyrillic letters")));
+                        is("Region short name can't be blank and must be 3 Cyrillic letters")));
     }
 
     @Test
@@ -351,6 +648,17 @@ public class RegionDirectoryControllerUnitTest {
                 .andExpect(jsonPath("$.shortName", is(regionDTO.shortName)));
     }
 
+    @Test
+    public void getById_GetWithCurrentETag_ReturnStatusNotModified_andNotQueryService() throws Exception {
+
+        mvc.perform(
+                get(v1RegionsMapping + "/10")
+                        .header(HttpHeaders.IF_NONE_MATCH, version.toETag()))
+                .andExpect(status().isNotModified());
+
+        verify(regionDirectoryService, never()).getById(anyString());
+    }
+
     @Test
     public void getById_GetIllegalId_ReturnStatusBadRequest_andReturnValidationErrorMessages() throws Exception {
         String id = "00";
@@ -374,10 +682,89 @@ public class RegionDirectoryControllerUnitTest {
                 get(v1RegionsMapping + "/" + id)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$.status", is(404)))
                 .andExpect(jsonPath("$.message", is("No records found by id = '" + id + "'")));
     }
 
+    @Test
+    public void getById_GetWithIfModifiedSinceOnly_ReturnStatusOk_andNotReturnLastModified() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("10", "Республика Карелия", "КАР");
+
+        when(regionDirectoryService.getById("10")).thenReturn(regionDTO);
+
+        mvc.perform(
+                get(v1RegionsMapping + "/10")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 01 Jan 2100 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.toETag()))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    public void getByIds_GetExistingAndMissingIds_ReturnStatusOK_andReturnRegionsAndMissingIds() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("77", "город Москва", "МСК");
+
+        when(regionDirectoryService.getByIds(Arrays.asList("77", "99")))
+                .thenReturn(new RegionLookup(Collections.singletonList(regionDTO), Collections.singletonList("99")));
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .param("ids", "77,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.regions", hasSize(1)))
+                .andExpect(jsonPath("$.regions[0].id", is(regionDTO.id)))
+                .andExpect(jsonPath("$.missing-ids", Matchers.contains("99")));
+    }
+
+    @Test
+    public void getByIds_GetIllegalId_ReturnStatusBadRequest_andReturnValidationErrorMessages() throws Exception {
+
+        mvc.perform(
+                get(v1RegionsMapping)
+                        .param("ids", "77,00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]",
+                        is("Region id must be 2 or 3 digits and mustn't contain only zeros")));
+
+        verify(regionDirectoryService, never()).getByIds(any());
+    }
+
+    @Test
+    public void getChangesSince_GetVersion_ReturnStatusOK_andReturnChangesAndTombstones() throws Exception {
+        when(regionDirectoryService.getChangesSince(5L)).thenReturn(new RegionChanges(8, Arrays.asList(
+                new RegionChange(6L, "99", null, null),
+                new RegionChange(8L, "77", "город Москва", "МСК"))));
+
+        mvc.perform(
+                get(v1RegionsMapping + "/changes")
+                        .param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(8)))
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].id", is("99")))
+                .andExpect(jsonPath("$.changes[0].deleted", is(true)))
+                .andExpect(jsonPath("$.changes[0].region", nullValue()))
+                .andExpect(jsonPath("$.changes[1].version", is(8)))
+                .andExpect(jsonPath("$.changes[1].region.name", is("город Москва")));
+    }
+
+    @Test
+    public void lookup_PostIds_ReturnStatusOK_andReturnRegionsAndMissingIds() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("35", "Вологодская область", "ВОЛ");
+
+        when(regionDirectoryService.getByIds(Arrays.asList("35", "102")))
+                .thenReturn(new RegionLookup(Collections.singletonList(regionDTO), Collections.singletonList("102")));
+
+        mvc.perform(
+                post(v1RegionsMapping + "/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"35\", \"102\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.regions[0].name", is(regionDTO.name)))
+                .andExpect(jsonPath("$.missing-ids", Matchers.contains("102")));
+    }
+
     @Test
     public void updateById_UpdateValidIdAndValidRegionDTO_ReturnStatusOk_andReturnRegionDTO() throws Exception {
         RegionDTO regionDTO = new RegionDTO("10", "город Москва", "МСК");
@@ -0,0 +1,41 @@
+package com.bromles.test_task_region_directory.controller;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionJsonArrayWriterUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void finish_AfterAllRegions_WriteCompleteArray() throws IOException {
+        try (RegionJsonArrayWriter writer = new RegionJsonArrayWriter(objectMapper, () -> output)) {
+            writer.accept(new RegionDTO("35", "Вологодская область", "ВОЛ"));
+            writer.accept(new RegionDTO("77", "город Москва", "МСК"));
+            writer.finish();
+        }
+
+        assertEquals(2, objectMapper.readTree(output.toByteArray()).size());
+    }
+
+    @Test
+    void close_WithoutFinish_LeaveArrayUnterminated() throws IOException {
+        try (RegionJsonArrayWriter writer = new RegionJsonArrayWriter(objectMapper, () -> output)) {
+            writer.accept(new RegionDTO("35", "Вологодская область", "ВОЛ"));
+        }
+
+        String body = output.toString(StandardCharsets.UTF_8);
+
+        assertTrue(body.startsWith("[{"));
+        assertFalse(body.endsWith("]"));
+    }
+}
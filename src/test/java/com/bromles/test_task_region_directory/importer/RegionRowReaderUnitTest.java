@@ -0,0 +1,73 @@
+package com.bromles.test_task_region_directory.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RegionRowReaderUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void next_CsvWithHeaderAndBlankLines_ReturnRegionsWithLineNumbers() throws IOException {
+        RegionRowReader reader = csvReader("id,name,short_name\n35,Вологодская область,ВОЛ\n\n77,город Москва,МСК\n");
+
+        RegionRowReader.Row first = reader.next();
+        RegionRowReader.Row second = reader.next();
+
+        assertEquals(2, first.getLineNumber());
+        assertEquals("35", first.getRegionDTO().id);
+        assertEquals("ВОЛ", first.getRegionDTO().shortName);
+        assertEquals(4, second.getLineNumber());
+        assertEquals("город Москва", second.getRegionDTO().name);
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_CsvWithWrongColumnCount_ReturnRejectedRow() throws IOException {
+        RegionRowReader.Row row = csvReader("35,Вологодская область\n").next();
+
+        assertNull(row.getRegionDTO());
+        assertEquals("Row must contain 3 columns: id, name and short name", row.getError());
+    }
+
+    @Test
+    void next_MalformedNdjson_ReturnRejectedRow() throws IOException {
+        RegionRowReader reader = new RegionRowReader(new StringReader(
+                "{\"id\":\"35\",\"name\":\"Вологодская область\",\"shortName\":\"ВОЛ\"}\nnot json\n"),
+                RegionImportFormat.NDJSON, objectMapper);
+
+        assertEquals("35", reader.next().getRegionDTO().id);
+        assertEquals("Unformed JSON in row", reader.next().getError());
+    }
+
+    @Test
+    void next_NullOrNonObjectNdjson_ReturnRejectedRows() throws IOException {
+        RegionRowReader reader = new RegionRowReader(new StringReader("null\n[\"35\"]\n42\n"),
+                RegionImportFormat.NDJSON, objectMapper);
+
+        for (int lineNumber = 1; lineNumber <= 3; lineNumber++) {
+            RegionRowReader.Row row = reader.next();
+
+            assertEquals(lineNumber, row.getLineNumber());
+            assertNull(row.getRegionDTO());
+            assertEquals("Row must be a JSON object", row.getError());
+        }
+    }
+
+    @Test
+    void parseCsv_QuotedValues_ReturnUnquotedValues() {
+        assertEquals(Arrays.asList("01", "Республика Адыгея, \"Адыгея\"", "АДГ"),
+                RegionRowReader.parseCsv("01,\"Республика Адыгея, \"\"Адыгея\"\"\",АДГ"));
+    }
+
+    private RegionRowReader csvReader(String content) {
+        return new RegionRowReader(new StringReader(content), RegionImportFormat.CSV, objectMapper);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NamePrefixIndexUnitTest {
+
+    private final NamePrefixIndex index = new NamePrefixIndex(Arrays.asList(
+            new RegionDTO("34", "Волгоградская область", "ВЛГ"),
+            new RegionDTO("35", "Вологодская область", "ВОЛ"),
+            new RegionDTO("36", "Воронежская область", "ВОР"),
+            new RegionDTO("77", "город Москва", "МСК")
+    ));
+
+    @Test
+    void find_ExistingNameBeginning_ReturnContiguousRange() {
+        List<RegionDTO> found = index.find("Вол");
+
+        assertEquals(2, found.size());
+        assertEquals("34", found.get(0).id);
+        assertEquals("35", found.get(1).id);
+    }
+
+    @Test
+    void find_NotExistingNameBeginning_ReturnEmptyList() {
+        assertTrue(index.find("Яр").isEmpty());
+        assertTrue(index.find("гороД").isEmpty());
+    }
+}
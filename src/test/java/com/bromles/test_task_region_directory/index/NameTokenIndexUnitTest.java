@@ -0,0 +1,53 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameTokenIndexUnitTest {
+
+    private final NameTokenIndex index = new NameTokenIndex(Arrays.asList(
+            new RegionDTO("79", "Еврейская автономная область", "ЕАО"),
+            new RegionDTO("86", "Ханты-Мансийский автономный округ - Югра", "ХМА"),
+            new RegionDTO("89", "Ямало-Ненецкий автономный округ", "ЯНА"),
+            new RegionDTO("02", "Республика Башкортостан", "БАШ")
+    ));
+
+    @Test
+    void find_AllWordsPresent_ReturnIntersection() {
+        assertEquals(new HashSet<>(Arrays.asList("86", "89")), new HashSet<>(index.find("автономный округ")));
+        assertEquals(Collections.singletonList("86"), index.find("ОКРУГ югра мансийский"));
+    }
+
+    @Test
+    void find_OneWordMissing_ReturnEmptyList() {
+        assertEquals(Collections.emptyList(), index.find("автономный республика"));
+        assertEquals(Collections.emptyList(), index.find("край"));
+    }
+
+    @Test
+    void find_AfterUpdateAndDelete_ReturnCurrentRegions() {
+        NameTokenIndex changed = index.withRemoved("89")
+                .withRemoved("86").withAdded(new RegionDTO("86", "Югра", "ХМА"))
+                .withAdded(new RegionDTO("83", "Ненецкий автономный округ", "НАО"));
+
+        assertEquals(Collections.singletonList("83"), changed.find("автономный округ"));
+        assertEquals(Collections.singletonList("86"), changed.find("Югра"));
+    }
+
+    @Test
+    void find_RepeatedWordInName_ReturnRegionOnce() {
+        NameTokenIndex changed = index.withAdded(new RegionDTO("99", "Область Тестовая область", "ТСТ"))
+                .withAdded(new RegionDTO("98", "Тестовая область", "ТСО"));
+
+        assertEquals(Arrays.asList("99", "98"), changed.find("область тестовая"));
+        assertEquals(Collections.singletonList("98"), changed.withRemoved("99").find("область тестовая"));
+        assertEquals(Collections.singletonList("98"),
+                new NameTokenIndex(Arrays.asList(new RegionDTO("98", "Тестовая тестовая", "ТСО"))).find("тестовая"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameTrigramIndexUnitTest {
+
+    private final NameTrigramIndex index = new NameTrigramIndex(Arrays.asList(
+            new RegionDTO("34", "Волгоградская область", "ВЛГ"),
+            new RegionDTO("35", "Вологодская область", "ВОЛ"),
+            new RegionDTO("77", "город Москва", "МСК"),
+            new RegionDTO("86", "Ханты-Мансийский автономный округ - Югра", "ХМА")
+    ));
+
+    @Test
+    void find_NameWithTyposAndShortenedWord_ReturnClosestRegion() {
+        assertEquals(Collections.singletonList("35"), index.find("Вологодска обл", 2, 10));
+    }
+
+    @Test
+    void find_NameWithoutHyphenAndFirstWords_ReturnRegion() {
+        assertEquals(Collections.singletonList("86"), index.find("ханты мансийский", 2, 10));
+        assertEquals(Collections.singletonList("77"), index.find("москва", 2, 10));
+    }
+
+    @Test
+    void find_AfterUpdate_ReturnRegionByNewNameOnly() {
+        NameTrigramIndex changed = index.withRemoved("35").withAdded(new RegionDTO("35", "Вологодский край", "ВОЛ"));
+
+        assertEquals(Collections.emptyList(), changed.find("Вологодская область", 1, 10));
+        assertEquals(Collections.singletonList("35"), changed.find("Вологодский край", 0, 10));
+    }
+}
@@ -0,0 +1,48 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionCodeTableUnitTest {
+
+    private final RegionCodeTable table = new RegionCodeTable(Arrays.asList(
+            new RegionDTO("01", "Республика Адыгея", "АДГ"),
+            new RegionDTO("001", "Нагрузочный регион", "НГР"),
+            new RegionDTO("999", "Последний код", "ПСЛ"),
+            new RegionDTO("A1", "Нецифровой код", "НЦК")
+    ));
+
+    @Test
+    void slotOf_TwoAndThreeDigitCodes_ReturnDistinctSlots() {
+        assertEquals(1, RegionCodeTable.slotOf("01"));
+        assertEquals(101, RegionCodeTable.slotOf("001"));
+        assertEquals(RegionCodeTable.SIZE - 1, RegionCodeTable.slotOf("999"));
+    }
+
+    @Test
+    void slotOf_NotCode_ReturnMinusOne() {
+        assertEquals(-1, RegionCodeTable.slotOf("1"));
+        assertEquals(-1, RegionCodeTable.slotOf("0001"));
+        assertEquals(-1, RegionCodeTable.slotOf("A1"));
+        assertEquals(-1, RegionCodeTable.slotOf("1/"));
+    }
+
+    @Test
+    void get_ExistingIds_ReturnRegions() {
+        assertEquals("Республика Адыгея", table.get("01").name);
+        assertEquals("Нагрузочный регион", table.get("001").name);
+        assertEquals("Последний код", table.get("999").name);
+        assertEquals("Нецифровой код", table.get("A1").name);
+    }
+
+    @Test
+    void get_MissingIds_ReturnNull() {
+        assertNull(table.get("02"));
+        assertNull(table.get("1"));
+        assertNull(table.get("B1"));
+    }
+}
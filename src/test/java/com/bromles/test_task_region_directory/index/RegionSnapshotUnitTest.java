@@ -0,0 +1,94 @@
+package com.bromles.test_task_region_directory.index;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionSnapshotUnitTest {
+
+    private final RegionSnapshot snapshot = RegionSnapshot.of(Arrays.asList(
+            new Region(1, "35", "Вологодская область", "ВОЛ"),
+            new Region(2, "34", "Волгоградская область", "ВЛГ"),
+            new Region(3, "02", "Республика Башкортостан", "БАШ"),
+            new Region(4, "102", "Республика Башкортостан", "БАШ")
+    ));
+
+    @Test
+    void getAll_ReturnRegionDTOsSortedByName() {
+        List<RegionDTO> regionDTOs = snapshot.getAll();
+
+        assertEquals(4, regionDTOs.size());
+        assertEquals("34", regionDTOs.get(0).id);
+        assertEquals("35", regionDTOs.get(1).id);
+        assertEquals("02", regionDTOs.get(2).id);
+        assertEquals("102", regionDTOs.get(3).id);
+    }
+
+    @Test
+    void getByNameAndShortName_ReturnAllMatches() {
+        assertEquals(2, snapshot.getByName("Республика Башкортостан").size());
+        assertEquals(2, snapshot.getByShortName("БАШ").size());
+        assertTrue(snapshot.getByName("город Москва").isEmpty());
+    }
+
+    @Test
+    void getByNameAndShortName_DifferentCaseAndSeparators_ReturnAllMatches() {
+        assertEquals(2, snapshot.getByName("республика  БАШКОРТОСТАН").size());
+        assertEquals(2, snapshot.getByName("Республика-Башкортостан").size());
+        assertEquals(2, snapshot.getByShortName("баш").size());
+        assertEquals(1, snapshot.getByShortNamePage("Баш", null, null, 1).size());
+    }
+
+    @Test
+    void getByNameBeginning_ReturnMatchesSortedByName() {
+        List<RegionDTO> regionDTOs = snapshot.getByNameBeginning("Вол");
+
+        assertEquals(2, regionDTOs.size());
+        assertEquals("34", regionDTOs.get(0).id);
+        assertEquals("35", regionDTOs.get(1).id);
+    }
+
+    @Test
+    void getPage_AfterLastRegionOfPreviousPage_ReturnFollowingRegions() {
+        List<Region> firstPage = snapshot.getPage(null, null, 3);
+        Region last = firstPage.get(2);
+        List<Region> secondPage = snapshot.getPage(last.getName(), last.getKey(), 3);
+
+        assertEquals(3, firstPage.size());
+        assertEquals("02", last.getId());
+        assertEquals(1, secondPage.size());
+        assertEquals("102", secondPage.get(0).getId());
+    }
+
+    @Test
+    void getByNameBeginningAndShortNamePage_AfterRegion_ReturnOnlyFollowingMatches() {
+        List<Region> byNameBeginning = snapshot.getByNameBeginningPage("Вол", "Волгоградская область", 2, 10);
+        List<Region> byShortName = snapshot.getByShortNamePage("БАШ", "Республика Башкортостан", 3, 10);
+
+        assertEquals(1, byNameBeginning.size());
+        assertEquals("35", byNameBeginning.get(0).getId());
+        assertEquals(1, byShortName.size());
+        assertEquals("102", byShortName.get(0).getId());
+        assertEquals("02", snapshot.getByNameBeginningPage("Рес", null, null, 1).get(0).getId());
+    }
+
+    @Test
+    void withSavedUpdatedAndDeleted_ReturnNewSnapshot_andKeepOriginalUnchanged() {
+        RegionSnapshot saved = snapshot.withSaved(new Region(5, "77", "город Москва", "МСК"));
+        RegionSnapshot updated = saved.withUpdated("77", new Region("97", "город Москва", "МСК"));
+        RegionSnapshot deleted = updated.withDeleted("35");
+
+        assertEquals(4, snapshot.size());
+        assertNull(snapshot.getById("77"));
+        assertEquals("город Москва", saved.getById("77").name);
+        assertNull(updated.getById("77"));
+        assertEquals("97", updated.getById("97").id);
+        assertNull(deleted.getById("35"));
+        assertEquals(4, deleted.size());
+    }
+}
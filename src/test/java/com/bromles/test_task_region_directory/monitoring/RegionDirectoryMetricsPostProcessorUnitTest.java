@@ -0,0 +1,124 @@
+package com.bromles.test_task_region_directory.monitoring;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.DuplicateUniqueValuesException;
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.bromles.test_task_region_directory.service.IRegionDirectoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegionDirectoryMetricsPostProcessorUnitTest {
+
+    private MeterRegistry meterRegistry;
+
+    private IRegionRepository regionRepository;
+
+    private IRegionRepository timedRegionRepository;
+
+    private IRegionDirectoryService regionDirectoryService;
+
+    private IRegionDirectoryService timedRegionDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        regionRepository = mock(IRegionRepository.class);
+        regionDirectoryService = mock(IRegionDirectoryService.class);
+
+        StaticListableBeanFactory beanFactory =
+                new StaticListableBeanFactory(Collections.singletonMap("meterRegistry", meterRegistry));
+        RegionDirectoryMetricsPostProcessor postProcessor =
+                new RegionDirectoryMetricsPostProcessor(beanFactory.getBeanProvider(MeterRegistry.class));
+
+        timedRegionRepository = (IRegionRepository) postProcessor
+                .postProcessAfterInitialization(regionRepository, "regionRepository");
+        timedRegionDirectoryService = (IRegionDirectoryService) postProcessor
+                .postProcessAfterInitialization(regionDirectoryService, "regionDirectoryService");
+    }
+
+    @Test
+    void lookupsAreTimedByOutcome() {
+        when(regionRepository.getById("1")).thenReturn(new Region(1, "1", "Москва", "МСК"));
+
+        timedRegionRepository.getById("1");
+        timedRegionRepository.getById("2");
+        timedRegionRepository.getById("2");
+
+        assertEquals(1, timer("getById", "found").count());
+        assertEquals(2, timer("getById", "not-found").count());
+    }
+
+    @Test
+    void updatesWithoutAffectedRowsAreNotFound() {
+        when(regionRepository.updateById(eq("1"), any())).thenReturn(1);
+
+        timedRegionRepository.updateById("1", new Region("1", "Москва", "МСК"));
+        timedRegionRepository.updateById("2", new Region("2", "Москва", "МСК"));
+
+        assertEquals(1, timer("updateById", "found").count());
+        assertEquals(1, timer("updateById", "not-found").count());
+    }
+
+    @Test
+    void duplicateKeysAreCountedAndRethrown() {
+        Region region = new Region("1", "Москва", "МСК");
+        doThrow(new DuplicateKeyException("Duplicate")).when(regionRepository).save(same(region));
+
+        assertThrows(DuplicateKeyException.class, () -> timedRegionRepository.save(region));
+        timedRegionRepository.save(new Region("2", "Санкт-Петербург", "СПБ"));
+
+        assertEquals(1, timer("save", "duplicate").count());
+        assertEquals(1, timer("save", "success").count());
+    }
+
+    @Test
+    void falseResultsAreNotFound() {
+        when(regionDirectoryService.isHeldInMemory()).thenReturn(false);
+
+        timedRegionDirectoryService.isHeldInMemory();
+
+        assertEquals(1, timer(RegionDirectoryMetricsPostProcessor.SERVICE_METRIC, "isHeldInMemory", "not-found")
+                .count());
+    }
+
+    @Test
+    void batchesAreDuplicateOnlyWithRejectedRegions() throws DuplicateUniqueValuesException {
+        List<RegionDTO> clean = Arrays.asList(new RegionDTO("1", "Москва", "МСК"),
+                new RegionDTO("2", "Санкт-Петербург", "СПБ"));
+        List<RegionDTO> partial = Arrays.asList(new RegionDTO("3", "Тверь", "ТВР"),
+                new RegionDTO("1", "Москва", "МСК"));
+        when(regionDirectoryService.addAll(clean)).thenReturn(Arrays.asList(null, null));
+        when(regionDirectoryService.addAll(partial)).thenReturn(Arrays.asList(null,
+                new DuplicateUniqueValuesException(Collections.<String, Object>singletonMap("id", "1"))));
+
+        timedRegionDirectoryService.addAll(clean);
+        timedRegionDirectoryService.addAll(partial);
+
+        assertEquals(1, timer(RegionDirectoryMetricsPostProcessor.SERVICE_METRIC, "addAll", "success").count());
+        assertEquals(1, timer(RegionDirectoryMetricsPostProcessor.SERVICE_METRIC, "addAll", "duplicate").count());
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return timer(RegionDirectoryMetricsPostProcessor.REPOSITORY_METRIC, operation, outcome);
+    }
+
+    private Timer timer(String metricName, String operation, String outcome) {
+        return meterRegistry.get(metricName)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
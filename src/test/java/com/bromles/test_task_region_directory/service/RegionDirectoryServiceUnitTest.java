@@ -0,0 +1,127 @@
+package com.bromles.test_task_region_directory.service;
+
+import com.bromles.test_task_region_directory.entity.Region;
+import com.bromles.test_task_region_directory.entity.RegionDTO;
+import com.bromles.test_task_region_directory.exception.RecordNotFoundException;
+import com.bromles.test_task_region_directory.index.RegionNameNormalizer;
+import com.bromles.test_task_region_directory.repository.IRegionRepository;
+import com.bromles.test_task_region_directory.repository.RegionBatchWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collections;
+
+import static com.bromles.test_task_region_directory.service.RegionDirectoryService.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegionDirectoryServiceUnitTest {
+
+    private IRegionRepository regionRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private RegionDirectoryService regionDirectoryService;
+
+    @BeforeEach
+    void setUp() {
+        regionRepository = mock(IRegionRepository.class);
+
+        cacheManager = new ConcurrentMapCacheManager(REGION_DTOS_BY_ID_CACHE,
+                REGION_DTOS_BY_NAME_CACHE, REGION_DTOS_BY_SHORT_NAME_CACHE, REGION_DTOS_BY_NAME_BEGINNING_CACHE,
+                MISSING_REGION_IDS_CACHE);
+
+        regionDirectoryService = new RegionDirectoryService(regionRepository, mock(RegionBatchWriter.class),
+                cacheManager, mock(ApplicationEventPublisher.class), false);
+    }
+
+    @Test
+    void getById_MissingIdTwice_QueryRepositoryOnce_andThrowSameStacklessException() {
+        RecordNotFoundException first = assertThrows(RecordNotFoundException.class,
+                () -> regionDirectoryService.getById("99"));
+        RecordNotFoundException second = assertThrows(RecordNotFoundException.class,
+                () -> regionDirectoryService.getById("99"));
+
+        assertSame(first, second);
+        assertEquals("No records found by id = '99'", second.getMessage());
+        assertEquals(0, second.getStackTrace().length);
+        verify(regionRepository, times(1)).getById("99");
+    }
+
+    @Test
+    void getById_AfterAddingMissingId_ReturnAddedRegion() throws Exception {
+        RegionDTO regionDTO = new RegionDTO("99", "Нагрузочный регион", "НГР");
+
+        assertThrows(RecordNotFoundException.class, () -> regionDirectoryService.getById("99"));
+
+        regionDirectoryService.add(regionDTO);
+        when(regionRepository.getById("99")).thenReturn(new Region(1, "99", regionDTO.name, regionDTO.shortName));
+
+        assertEquals(regionDTO, regionDirectoryService.getById("99"));
+    }
+
+    @Test
+    void updateById_CachedQueriesOfOldAndNewValues_EvictOnlyAffectedEntries() throws Exception {
+        when(regionRepository.getById("35")).thenReturn(new Region(1, "35", "Вологодская область", "ВОЛ"));
+        when(regionRepository.updateById(eq("35"), any())).thenReturn(1);
+        cacheStaleQueries();
+        cache(REGION_DTOS_BY_NAME_CACHE).put(RegionNameNormalizer.normalize("Вологда"), "stale");
+
+        regionDirectoryService.updateById("35", new RegionDTO("35", "Вологда", "ВЛГ"));
+
+        assertStaleQueriesEvicted();
+        assertNull(cache(REGION_DTOS_BY_NAME_CACHE).get(RegionNameNormalizer.normalize("Вологда")));
+    }
+
+    @Test
+    void deleteById_CachedQueriesOfDeletedRegion_EvictOnlyAffectedEntries() throws Exception {
+        when(regionRepository.getById("35")).thenReturn(new Region(1, "35", "Вологодская область", "ВОЛ"));
+        when(regionRepository.deleteById("35")).thenReturn(1);
+        cacheStaleQueries();
+
+        regionDirectoryService.deleteById("35");
+
+        assertStaleQueriesEvicted();
+    }
+
+    @Test
+    void updateById_SnapshotLoaded_TakePreviousValueFromSnapshot() throws Exception {
+        RegionDirectoryService snapshotService = new RegionDirectoryService(regionRepository,
+                mock(RegionBatchWriter.class), cacheManager, mock(ApplicationEventPublisher.class), true);
+        when(regionRepository.getAll()).thenReturn(Collections.singletonList(
+                new Region(1, "35", "Вологодская область", "ВОЛ")));
+        when(regionRepository.updateById(eq("35"), any())).thenReturn(1);
+        cacheStaleQueries();
+
+        snapshotService.getById("35");
+        snapshotService.updateById("35", new RegionDTO("35", "Вологда", "ВЛГ"));
+
+        verify(regionRepository, never()).getById("35");
+        assertStaleQueriesEvicted();
+    }
+
+    private void cacheStaleQueries() {
+        cache(REGION_DTOS_BY_ID_CACHE).put("35", "stale");
+        cache(REGION_DTOS_BY_NAME_CACHE).put(RegionNameNormalizer.normalize("Вологодская область"), "stale");
+        cache(REGION_DTOS_BY_SHORT_NAME_CACHE).put(RegionNameNormalizer.normalize("ВОЛ"), "stale");
+        cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).put("Вол", "stale");
+        cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).put("Вологодская", "stale");
+        cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).put("Мос", "unaffected");
+    }
+
+    private void assertStaleQueriesEvicted() {
+        assertNull(cache(REGION_DTOS_BY_ID_CACHE).get("35"));
+        assertNull(cache(REGION_DTOS_BY_NAME_CACHE).get(RegionNameNormalizer.normalize("Вологодская область")));
+        assertNull(cache(REGION_DTOS_BY_SHORT_NAME_CACHE).get(RegionNameNormalizer.normalize("ВОЛ")));
+        assertNull(cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).get("Вол"));
+        assertNull(cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).get("Вологодская"));
+        assertNotNull(cache(REGION_DTOS_BY_NAME_BEGINNING_CACHE).get("Мос"));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+}
@@ -0,0 +1,57 @@
+package com.bromles.test_task_region_directory.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class H2CheckpointStorageUnitTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadWithoutFileLeavesDatabaseEmpty() {
+        H2CheckpointStorage storage = new H2CheckpointStorage(directory.resolve("db").toString(), "sa", "");
+
+        assertFalse(storage.exists());
+        assertFalse(storage.load(memoryDataSource()));
+    }
+
+    @Test
+    void checkpointIsLoadedIntoNewDatabase() {
+        H2CheckpointStorage storage = new H2CheckpointStorage(directory.resolve("db").toString(), "sa", "");
+        DataSource source = memoryDataSource();
+        JdbcTemplate sourceTemplate = new JdbcTemplate(source);
+
+        sourceTemplate.execute("CREATE TABLE regions (key integer not null auto_increment, id varchar(3) not null, " +
+                "name varchar(255) not null, short_name varchar(3) not null, primary key (key), unique (id))");
+        sourceTemplate.update("INSERT INTO regions (id, name, short_name) VALUES ('77', 'Москва', 'МСК')");
+
+        storage.checkpoint(source);
+        sourceTemplate.update("INSERT INTO regions (id, name, short_name) VALUES ('78', 'Санкт-Петербург', 'СПБ')");
+        storage.checkpoint(source);
+
+        DataSource target = memoryDataSource();
+        JdbcTemplate targetTemplate = new JdbcTemplate(target);
+
+        assertTrue(storage.exists());
+        assertTrue(storage.load(target));
+        assertEquals(2, targetTemplate.queryForObject("SELECT COUNT(*) FROM regions", Integer.class));
+
+        targetTemplate.update("INSERT INTO regions (id, name, short_name) VALUES ('50', 'Московская область', 'МО')");
+
+        assertEquals(3, targetTemplate.queryForObject("SELECT key FROM regions WHERE id = '50'", Integer.class));
+    }
+
+    private static DataSource memoryDataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "sa", "");
+    }
+}